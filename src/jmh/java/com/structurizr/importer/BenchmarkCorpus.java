@@ -0,0 +1,223 @@
+package com.structurizr.importer;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Generates the synthetic inputs used by the benchmarks: ADRs, nested documentation trees, image folders
+ * and diagram sources. Everything is derived from a fixed seed, so the same parameters always produce the
+ * same corpus, and results can be compared between releases.
+ */
+public final class BenchmarkCorpus {
+
+    private static final long SEED = 1;
+
+    private static final String[] STATUSES = { "Proposed", "Accepted", "Deprecated" };
+
+    private BenchmarkCorpus() {
+    }
+
+    /**
+     * Creates a temporary directory to generate a corpus into.
+     */
+    public static Path createDirectory(String prefix) {
+        try {
+            return Files.createTempDirectory("structurizr-" + prefix);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the given number of adr-tools style decisions, each padded to roughly the given size in bytes.
+     * Every tenth decision is superseded by the next one, so that link resolution is exercised too.
+     */
+    public static void createDecisions(Path directory, int count, int size) {
+        Random random = new Random(SEED);
+        for (int id = 1; id <= count; id++) {
+            String title = "Use component " + random.nextInt(1000) + " for feature " + id;
+
+            StringBuilder buf = new StringBuilder(size + 256);
+            buf.append("# ").append(id).append(". ").append(title).append("\n\n");
+            buf.append("Date: 2023-").append(String.format("%02d-%02d", 1 + random.nextInt(12), 1 + random.nextInt(28))).append("\n\n");
+            buf.append("## Status\n\n");
+            if (id % 10 == 0 && id < count) {
+                buf.append("Superseded by [").append(id + 1).append(". Decision](").append(decisionFilename(id + 1)).append(")\n\n");
+            } else {
+                buf.append(STATUSES[random.nextInt(STATUSES.length)]).append("\n\n");
+            }
+            buf.append("## Context\n\n");
+            appendParagraphs(buf, random, size);
+            buf.append("\n## Decision\n\nWe will use component ").append(id).append(".\n\n## Consequences\n\nNone.\n");
+
+            write(directory.resolve(decisionFilename(id)), buf.toString());
+        }
+    }
+
+    /**
+     * Writes a documentation tree that is the given number of levels deep, where every directory contains
+     * the given number of Markdown files and (apart from the deepest level) the same number of subdirectories.
+     */
+    public static void createDocumentation(Path directory, int depth, int breadth, int size) {
+        createDocumentation(directory, depth, breadth, size, new Random(SEED));
+    }
+
+    private static void createDocumentation(Path directory, int depth, int breadth, int size, Random random) {
+        for (int i = 1; i <= breadth; i++) {
+            StringBuilder buf = new StringBuilder(size + 256);
+            buf.append("## Section ").append(directory.getFileName()).append(" ").append(i).append("\n\n");
+            appendParagraphs(buf, random, size);
+            write(directory.resolve(String.format("%02d-section.md", i)), buf.toString());
+        }
+
+        if (depth > 1) {
+            for (int i = 1; i <= breadth; i++) {
+                Path subdirectory = directory.resolve(String.format("%02d-directory", breadth + i));
+                createDirectories(subdirectory);
+                createDocumentation(subdirectory, depth - 1, breadth, size, random);
+            }
+        }
+    }
+
+    /**
+     * Writes the given number of PNG images that compress like typical UI screenshots, plus one SVG file
+     * for every four images.
+     */
+    public static void createImages(Path directory, int count, int width, int height) {
+        Random random = new Random(SEED);
+        try {
+            for (int i = 0; i < count; i++) {
+                ImageIO.write(createScreenshot(random, width, height), "png", directory.resolve(String.format("screenshot-%02d.png", i)).toFile());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        for (int i = 0; i < count / 4; i++) {
+            StringBuilder buf = new StringBuilder();
+            buf.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(width).append("\" height=\"").append(height).append("\">\n");
+            for (int j = 0; j < 200; j++) {
+                buf.append("  <rect x=\"").append(random.nextInt(width)).append("\" y=\"").append(random.nextInt(height))
+                        .append("\" width=\"100\" height=\"40\" fill=\"#").append(String.format("%06x", random.nextInt(0xFFFFFF))).append("\"/>\n");
+            }
+            buf.append("</svg>\n");
+            write(directory.resolve(String.format("diagram-%02d.svg", i)), buf.toString());
+        }
+    }
+
+    /**
+     * Returns a PlantUML diagram source of roughly the given size in characters.
+     */
+    public static String createPlantUML(int size) {
+        Random random = new Random(size);
+        StringBuilder buf = new StringBuilder(size + 64);
+        buf.append("@startuml\n");
+        while (buf.length() < size) {
+            buf.append("Component").append(random.nextInt(1000)).append(" -> Component").append(random.nextInt(1000)).append(" : Uses\n");
+        }
+        buf.append("@enduml");
+
+        return buf.toString();
+    }
+
+    /**
+     * Returns a Mermaid diagram source of roughly the given size in characters.
+     */
+    public static String createMermaid(int size) {
+        Random random = new Random(size);
+        StringBuilder buf = new StringBuilder(size + 64);
+        buf.append("graph TD\n");
+        while (buf.length() < size) {
+            buf.append("    Component").append(random.nextInt(1000)).append(" -->|Uses| Component").append(random.nextInt(1000)).append("\n");
+        }
+
+        return buf.toString();
+    }
+
+    /**
+     * Deletes a generated corpus.
+     */
+    public static void delete(Path directory) {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String decisionFilename(int id) {
+        return String.format("%04d-decision-%d.md", id, id);
+    }
+
+    private static void appendParagraphs(StringBuilder buf, Random random, int size) {
+        int target = buf.length() + size;
+        while (buf.length() < target) {
+            buf.append("Container ").append(random.nextInt(1000)).append(" sends messages to container ")
+                    .append(random.nextInt(1000)).append(" via the ").append(random.nextBoolean() ? "REST API" : "message queue")
+                    .append(". See [the diagram](#").append(random.nextInt(100)).append(").\n");
+        }
+    }
+
+    /**
+     * Creates an image that compresses like a typical UI screenshot: flat panels, borders and text.
+     */
+    private static BufferedImage createScreenshot(Random random, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        graphics.setColor(new Color(245, 245, 245));
+        graphics.fillRect(0, 0, width, height);
+
+        for (int i = 0; i < 40; i++) {
+            int panelWidth = 20 + random.nextInt(Math.max(1, width / 3));
+            int panelHeight = 20 + random.nextInt(Math.max(1, height / 4));
+            int x = random.nextInt(Math.max(1, width - panelWidth));
+            int y = random.nextInt(Math.max(1, height - panelHeight));
+
+            graphics.setColor(new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256)));
+            graphics.fillRoundRect(x, y, panelWidth, panelHeight, 8, 8);
+            graphics.setColor(Color.DARK_GRAY);
+            graphics.drawRoundRect(x, y, panelWidth, panelHeight, 8, 8);
+
+            graphics.setColor(Color.BLACK);
+            for (int line = 0; line < panelHeight / 20; line++) {
+                graphics.drawString("Component " + random.nextInt(1000) + " uses Container " + random.nextInt(1000), x + 8, y + 16 + line * 20);
+            }
+        }
+
+        graphics.dispose();
+
+        return image;
+    }
+
+    private static void createDirectories(Path directory) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void write(Path path, String content) {
+        try {
+            Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.structurizr.importer.diagrams.kroki;
+
+import com.structurizr.importer.BenchmarkCorpus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the Kroki encoder, for diagram sources between 1KB and 1MB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KrokiEncoderBenchmark {
+
+    @Param({ "1024", "16384", "131072", "1048576" })
+    private int size;
+
+    private String diagram;
+    private KrokiEncoder encoder;
+
+    @Setup
+    public void setUp() {
+        diagram = BenchmarkCorpus.createPlantUML(size);
+        encoder = new KrokiEncoder();
+    }
+
+    @Benchmark
+    public String encode() throws Exception {
+        return encoder.encode(diagram);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,120 @@
+package com.structurizr.importer.diagrams.plantuml;
+
+import com.structurizr.importer.BenchmarkCorpus;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Compares the table-driven PlantUML encoder with the original StringBuilder based implementation,
+ * both for the 6-bit encoding step on its own, and for the full deflate + encode of a diagram.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlantUMLEncoderBenchmark {
+
+    @Param({ "1024", "65536", "1048576" })
+    private int size;
+
+    private String diagram;
+    private byte[] compressed;
+    private PlantUMLEncoder encoder;
+
+    @Setup
+    public void setUp() throws Exception {
+        diagram = BenchmarkCorpus.createPlantUML(size);
+        compressed = new byte[size];
+        new Random(size).nextBytes(compressed);
+        encoder = new PlantUMLEncoder();
+    }
+
+    @Benchmark
+    public String encodeBytes() {
+        return encoder.encode(compressed, compressed.length);
+    }
+
+    @Benchmark
+    public String encodeBytes_Original() {
+        return OriginalPlantUMLEncoder.encode(compressed);
+    }
+
+    @Benchmark
+    public String encodeDiagram() throws Exception {
+        return encoder.encode(diagram);
+    }
+
+    @Benchmark
+    public String encodeDiagram_Original() throws Exception {
+        return OriginalPlantUMLEncoder.encode(diagram);
+    }
+
+    private static class OriginalPlantUMLEncoder {
+
+        static String encode(String plantUMLDefinition) throws Exception {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+
+            DeflaterOutputStream dos = new DeflaterOutputStream(baos, deflater, true);
+            dos.write(plantUMLDefinition.getBytes(StandardCharsets.UTF_8));
+            dos.finish();
+            deflater.end();
+
+            return encode(baos.toByteArray());
+        }
+
+        static String encode(byte[] bytes) {
+            StringBuilder buf = new StringBuilder();
+            for (int i = 0; i < bytes.length; i += 3) {
+                int b1 = (bytes[i]) & 0xFF;
+                int b2 = (i + 1 < bytes.length ? bytes[i + 1] : (byte)0) & 0xFF;
+                int b3 = (i + 2 < bytes.length ? bytes[i + 2] : (byte)0) & 0xFF;
+
+                int c1 = b1 >> 2;
+                int c2 = (b1 & 0x3) << 4 | b2 >> 4;
+                int c3 = (b2 & 0xF) << 2 | b3 >> 6;
+                int c4 = b3 & 0x3F;
+
+                buf.append(encode6bit((byte)(c1 & 0x3F)));
+                buf.append(encode6bit((byte)(c2 & 0x3F)));
+                buf.append(encode6bit((byte)(c3 & 0x3F)));
+                buf.append(encode6bit((byte)(c4 & 0x3F)));
+            }
+
+            return buf.toString();
+        }
+
+        static char encode6bit(byte b) {
+            if (b < 10) {
+                return (char) ('0' + b);
+            }
+            b -= 10;
+            if (b < 26) {
+                return (char) ('A' + b);
+            }
+            b -= 26;
+            if (b < 26) {
+                return (char) ('a' + b);
+            }
+            b -= 26;
+            if (b == 0) {
+                return '-';
+            }
+            if (b == 1) {
+                return '_';
+            }
+
+            return '?';
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.structurizr.importer.documentation;
+
+import com.structurizr.Workspace;
+import com.structurizr.importer.BenchmarkCorpus;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures importing a directory of adr-tools decisions, both from scratch and incrementally
+ * (via an up-to-date manifest, so that no decision needs to be parsed again).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdrToolsDecisionImporterBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int decisions;
+
+    @Param({ "2048" })
+    private int size;
+
+    private Path corpus;
+    private File directory;
+    private File manifest;
+
+    @Setup
+    public void setUp() {
+        corpus = BenchmarkCorpus.createDirectory("adrs");
+        directory = corpus.resolve("adrs").toFile();
+        directory.mkdirs();
+        BenchmarkCorpus.createDecisions(directory.toPath(), decisions, size);
+
+        manifest = corpus.resolve("manifest").toFile();
+        importDecisions_Incremental();
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkCorpus.delete(corpus);
+    }
+
+    @Benchmark
+    public Workspace importDecisions() {
+        Workspace workspace = new Workspace("Name", "Description");
+        new AdrToolsDecisionImporter().importDocumentation(workspace, directory);
+
+        return workspace;
+    }
+
+    @Benchmark
+    public Workspace importDecisions_Incremental() {
+        Workspace workspace = new Workspace("Name", "Description");
+        AdrToolsDecisionImporter importer = new AdrToolsDecisionImporter();
+        importer.setManifest(manifest);
+        importer.importDocumentation(workspace, directory);
+
+        return workspace;
+    }
+
+}
\ No newline at end of file
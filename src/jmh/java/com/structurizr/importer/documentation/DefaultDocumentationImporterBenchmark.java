@@ -0,0 +1,60 @@
+package com.structurizr.importer.documentation;
+
+import com.structurizr.Workspace;
+import com.structurizr.importer.BenchmarkCorpus;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures importing a documentation tree, both the top-level directory on its own
+ * (DefaultDocumentationImporter) and the whole tree (RecursiveDefaultDocumentationImporter).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DefaultDocumentationImporterBenchmark {
+
+    @Param({ "1", "3", "5" })
+    private int depth;
+
+    @Param({ "4" })
+    private int breadth;
+
+    @Param({ "4096" })
+    private int size;
+
+    private Path directory;
+
+    @Setup
+    public void setUp() {
+        directory = BenchmarkCorpus.createDirectory("docs");
+        BenchmarkCorpus.createDocumentation(directory, depth, breadth, size);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkCorpus.delete(directory);
+    }
+
+    @Benchmark
+    public Workspace importDocumentation() {
+        Workspace workspace = new Workspace("Name", "Description");
+        new DefaultDocumentationImporter().importDocumentation(workspace, directory.toFile());
+
+        return workspace;
+    }
+
+    @Benchmark
+    public Workspace importDocumentation_Recursive() {
+        Workspace workspace = new Workspace("Name", "Description");
+        new RecursiveDefaultDocumentationImporter().importDocumentation(workspace, directory.toFile());
+
+        return workspace;
+    }
+
+}
\ No newline at end of file
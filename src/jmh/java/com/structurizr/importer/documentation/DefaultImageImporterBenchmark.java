@@ -0,0 +1,69 @@
+package com.structurizr.importer.documentation;
+
+import com.structurizr.Workspace;
+import com.structurizr.importer.BenchmarkCorpus;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares importing raster images by decoding and re-encoding them (the default) with passthrough mode.
+ *
+ * The corpus parameter is a directory of images to import, for example a folder of real screenshots:
+ * ./gradlew jmh -Pjmh.includes=DefaultImageImporterBenchmark "-Pjmh.args=-p corpus=/path/to/screenshots"
+ * When it's empty, a corpus of synthetic screenshot-like PNGs (plus some SVGs) is generated instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DefaultImageImporterBenchmark {
+
+    @Param({ "" })
+    private String corpus;
+
+    @Param({ "20" })
+    private int images;
+
+    private Path generatedCorpus;
+    private File directory;
+
+    @Setup
+    public void setUp() {
+        if (corpus.isEmpty()) {
+            generatedCorpus = BenchmarkCorpus.createDirectory("images");
+            BenchmarkCorpus.createImages(generatedCorpus, images, 1920, 1080);
+            directory = generatedCorpus.toFile();
+        } else {
+            directory = new File(corpus);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkCorpus.delete(generatedCorpus);
+    }
+
+    @Benchmark
+    public Workspace importImages() {
+        Workspace workspace = new Workspace("Name", "Description");
+        new DefaultImageImporter().importDocumentation(workspace, directory);
+
+        return workspace;
+    }
+
+    @Benchmark
+    public Workspace importImages_Passthrough() {
+        Workspace workspace = new Workspace("Name", "Description");
+        DefaultImageImporter importer = new DefaultImageImporter();
+        importer.setPassthrough(true);
+        importer.importDocumentation(workspace, directory);
+
+        return workspace;
+    }
+
+}
\ No newline at end of file
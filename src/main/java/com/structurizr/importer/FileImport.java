@@ -0,0 +1,112 @@
+package com.structurizr.importer;
+
+/**
+ * Records the import of a single file, for reporting to an ImportListener. Importers call start(...) once per file,
+ * and then finished() or failed(...); without a listener, start(...) returns a shared instance that records nothing,
+ * so that an importer without a listener doesn't read the clock or allocate anything.
+ *
+ * An instance is used by one thread at a time.
+ */
+public final class FileImport {
+
+    private static final FileImport NONE = new FileImport(null, null, null);
+
+    private final ImportListener listener;
+    private final String importer;
+    private final String path;
+    private final long startTime;
+
+    private long bytesRead;
+    private long bytesProduced;
+    private long encodeStartTime;
+    private long encodeDuration;
+
+    private FileImport(ImportListener listener, String importer, String path) {
+        this.listener = listener;
+        this.importer = importer;
+        this.path = path;
+        this.startTime = listener != null ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Starts recording the import of a file.
+     *
+     * @param listener      the listener to report to, or null
+     * @param importer      the importer
+     * @param path          the path of the file, or the key of the view for diagram definitions
+     * @return  a FileImport instance
+     */
+    public static FileImport start(ImportListener listener, Object importer, String path) {
+        if (listener == null) {
+            return NONE;
+        }
+
+        String name = importer.getClass().getSimpleName();
+        listener.importStarted(name, path);
+
+        return new FileImport(listener, name, path);
+    }
+
+    /**
+     * Records that some bytes were read.
+     *
+     * @param bytes     a number of bytes
+     */
+    public void read(long bytes) {
+        if (listener != null) {
+            bytesRead += bytes;
+        }
+    }
+
+    /**
+     * Records that some content was produced.
+     *
+     * @param characters    a number of characters
+     */
+    public void produced(long characters) {
+        if (listener != null) {
+            bytesProduced += characters;
+        }
+    }
+
+    /**
+     * Records the start of an encoding step.
+     */
+    public void encodeStarted() {
+        if (listener != null) {
+            encodeStartTime = System.nanoTime();
+        }
+    }
+
+    /**
+     * Records the end of an encoding step.
+     */
+    public void encodeFinished() {
+        if (listener != null) {
+            encodeDuration += System.nanoTime() - encodeStartTime;
+        }
+    }
+
+    /**
+     * Records that the file was imported, and reports it to the listener.
+     */
+    public void finished() {
+        finish(null);
+    }
+
+    /**
+     * Records that the file couldn't be imported, and reports it to the listener.
+     *
+     * @param exception     the exception thrown while importing the file
+     */
+    public void failed(Exception exception) {
+        finish(exception);
+    }
+
+    private void finish(Exception exception) {
+        if (listener != null) {
+            listener.importFinished(new ImportEvent(importer, path, bytesRead, bytesProduced, System.nanoTime() - startTime, encodeDuration, exception));
+        }
+    }
+
+}
\ No newline at end of file
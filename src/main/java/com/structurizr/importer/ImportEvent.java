@@ -0,0 +1,105 @@
+package com.structurizr.importer;
+
+/**
+ * Describes the import of a single file (or diagram definition).
+ */
+public final class ImportEvent {
+
+    private final String importer;
+    private final String path;
+    private final long bytesRead;
+    private final long bytesProduced;
+    private final long durationNanos;
+    private final long encodeDurationNanos;
+    private final Exception exception;
+
+    ImportEvent(String importer, String path, long bytesRead, long bytesProduced, long durationNanos, long encodeDurationNanos, Exception exception) {
+        this.importer = importer;
+        this.path = path;
+        this.bytesRead = bytesRead;
+        this.bytesProduced = bytesProduced;
+        this.durationNanos = durationNanos;
+        this.encodeDurationNanos = encodeDurationNanos;
+        this.exception = exception;
+    }
+
+    /**
+     * Gets the name of the importer (e.g. "DefaultImageImporter").
+     *
+     * @return  the simple class name of the importer
+     */
+    public String getImporter() {
+        return importer;
+    }
+
+    /**
+     * Gets the path of the file that was imported.
+     *
+     * @return  a path, or the key of the view for diagram definitions
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the number of bytes read from the file.
+     *
+     * @return  a number of bytes (zero for diagram definitions)
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Gets the size of the content produced (e.g. the section content, the base64 encoded image,
+     * or the diagram URL/data URI). Content is stored as strings, so this is a number of characters.
+     *
+     * @return  a number of characters
+     */
+    public long getBytesProduced() {
+        return bytesProduced;
+    }
+
+    /**
+     * Gets the time taken to import the file, including reading and encoding it.
+     *
+     * @return  a duration, in nanoseconds
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Gets the part of the duration that was spent encoding (e.g. base64 encoding an image, or
+     * compressing and encoding a diagram definition).
+     *
+     * @return  a duration, in nanoseconds (zero where there's no encoding step)
+     */
+    public long getEncodeDurationNanos() {
+        return encodeDurationNanos;
+    }
+
+    /**
+     * Determines whether the file was imported successfully.
+     *
+     * @return  true if the file was imported, false otherwise
+     */
+    public boolean isSuccessful() {
+        return exception == null;
+    }
+
+    /**
+     * Gets the exception thrown while importing the file.
+     *
+     * @return  an Exception, or null if the file was imported successfully
+     */
+    public Exception getException() {
+        return exception;
+    }
+
+    @Override
+    public String toString() {
+        return importer + " " + path + " (" + bytesRead + " bytes read, " + bytesProduced + " produced, " + durationNanos + "ns" + (exception != null ? ", failed: " + exception : "") + ")";
+    }
+
+}
\ No newline at end of file
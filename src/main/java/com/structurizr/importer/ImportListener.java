@@ -0,0 +1,27 @@
+package com.structurizr.importer;
+
+/**
+ * Notified as each file (or diagram definition) is imported, by any of the documentation and diagram importers
+ * that it's registered with. Importers that import concurrently call the listener from multiple threads,
+ * so implementations need to be thread-safe.
+ */
+@FunctionalInterface
+public interface ImportListener {
+
+    /**
+     * Called when an importer starts to import a file.
+     *
+     * @param importer      the name of the importer (e.g. "DefaultImageImporter")
+     * @param path          the path of the file, or the key of the view for diagram definitions
+     */
+    default void importStarted(String importer, String path) {
+    }
+
+    /**
+     * Called when an importer has finished importing a file, whether successfully or not.
+     *
+     * @param event     an ImportEvent describing the import
+     */
+    void importFinished(ImportEvent event);
+
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.structurizr.importer;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An ImportListener that aggregates counters across all of the imports it's notified of, and can be shared
+ * by multiple importers (including importers that import concurrently).
+ */
+public class ImportMetrics implements ImportListener {
+
+    private final LongAdder started = new LongAdder();
+    private final LongAdder imported = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bytesProduced = new LongAdder();
+    private final LongAdder durationNanos = new LongAdder();
+    private final LongAdder encodeDurationNanos = new LongAdder();
+
+    @Override
+    public void importStarted(String importer, String path) {
+        started.increment();
+    }
+
+    @Override
+    public void importFinished(ImportEvent event) {
+        if (event.isSuccessful()) {
+            imported.increment();
+        } else {
+            failed.increment();
+        }
+
+        bytesRead.add(event.getBytesRead());
+        bytesProduced.add(event.getBytesProduced());
+        durationNanos.add(event.getDurationNanos());
+        encodeDurationNanos.add(event.getEncodeDurationNanos());
+    }
+
+    /**
+     * Gets the number of files that have been imported successfully.
+     *
+     * @return  a number of files
+     */
+    public long getImportedCount() {
+        return imported.sum();
+    }
+
+    /**
+     * Gets the number of files that couldn't be imported.
+     *
+     * @return  a number of files
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Gets the number of files that have started, but not yet finished, importing.
+     *
+     * @return  a number of files
+     */
+    public long getInProgressCount() {
+        return started.sum() - imported.sum() - failed.sum();
+    }
+
+    /**
+     * Gets the total number of bytes read.
+     *
+     * @return  a number of bytes
+     */
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    /**
+     * Gets the total size of the content produced.
+     *
+     * @return  a number of characters
+     */
+    public long getBytesProduced() {
+        return bytesProduced.sum();
+    }
+
+    /**
+     * Gets the total time spent importing files. When files are imported concurrently, this is
+     * the sum of the time taken by each file, so may be greater than the elapsed time.
+     *
+     * @return  a duration, in nanoseconds
+     */
+    public long getDurationNanos() {
+        return durationNanos.sum();
+    }
+
+    /**
+     * Gets the part of the total duration that was spent encoding.
+     *
+     * @return  a duration, in nanoseconds
+     */
+    public long getEncodeDurationNanos() {
+        return encodeDurationNanos.sum();
+    }
+
+    /**
+     * Resets all of the counters to zero.
+     */
+    public void reset() {
+        started.reset();
+        imported.reset();
+        failed.reset();
+        bytesRead.reset();
+        bytesProduced.reset();
+        durationNanos.reset();
+        encodeDurationNanos.reset();
+    }
+
+    @Override
+    public String toString() {
+        return getImportedCount() + " imported, " + getFailedCount() + " failed, " + getBytesRead() + " bytes read, " +
+                getBytesProduced() + " produced, " + (getDurationNanos() / 1000000) + "ms (" + (getEncodeDurationNanos() / 1000000) + "ms encoding)";
+    }
+
+}
\ No newline at end of file
@@ -1,10 +1,20 @@
 package com.structurizr.importer.diagrams;
 
+import com.structurizr.importer.FileImport;
+import com.structurizr.importer.ImportListener;
+import com.structurizr.importer.jfr.JfrEvents;
+import com.structurizr.view.ImageView;
 import com.structurizr.view.View;
 import com.structurizr.view.ViewSet;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public abstract class AbstractDiagramImporter {
 
@@ -21,6 +31,224 @@ public abstract class AbstractDiagramImporter {
         CONTENT_TYPES_BY_FORMAT.put(SVG_FORMAT, CONTENT_TYPE_IMAGE_SVG);
     }
 
+    private EncodedDiagramCache cache;
+    private Executor executor;
+    private DiagramRenderer renderer;
+    private RenderedDiagramCache renderedDiagramCache;
+    private ImportListener importListener;
+
+    // the import of the file whose content is being passed to the (overridable) diagram definition import on this thread
+    private final ThreadLocal<FileImport> fileImportInProgress = new ThreadLocal<>();
+
+    /**
+     * Sets the cache used to avoid re-encoding diagrams that haven't changed (the default is null, which
+     * encodes every diagram). The same cache can be shared by multiple importers.
+     *
+     * @param cache     an EncodedDiagramCache instance, or null
+     */
+    public void setCache(EncodedDiagramCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Sets the executor used to import batches of diagrams (the default is null, which uses a pool
+     * of threads, bounded by the number of available processors, for the duration of each batch).
+     *
+     * @param executor      an Executor instance, or null
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Sets the renderer used to fetch rendered diagrams, for views that have the inline property
+     * (e.g. "plantuml.inline") set to "true" (the default is null, which uses a renderer shared by all importers).
+     *
+     * @param renderer      a DiagramRenderer instance, or null
+     */
+    public void setRenderer(DiagramRenderer renderer) {
+        this.renderer = renderer;
+    }
+
+    /**
+     * Sets the cache used to avoid fetching rendered diagrams that haven't changed, for views that are inlined
+     * (the default is null, which fetches every inlined diagram). The same cache can be shared by multiple importers.
+     *
+     * @param renderedDiagramCache      a RenderedDiagramCache instance, or null
+     */
+    public void setRenderedDiagramCache(RenderedDiagramCache renderedDiagramCache) {
+        this.renderedDiagramCache = renderedDiagramCache;
+    }
+
+    /**
+     * Sets the listener that is notified as each diagram file or definition is imported (the default is null,
+     * which reports nothing). The encode duration covers encoding the diagram URL, but not cache hits.
+     * When importing batches of diagrams, the listener is called from multiple threads.
+     *
+     * @param importListener    an ImportListener instance (e.g. an ImportMetrics), or null
+     */
+    public void setImportListener(ImportListener importListener) {
+        this.importListener = importListener;
+    }
+
+    protected <T> List<DiagramImportResult> importDiagrams(Map<ImageView, T> diagrams, DiagramImport<T> diagramImport) {
+        if (diagrams == null) {
+            throw new IllegalArgumentException("A map of views to diagrams must be specified.");
+        }
+
+        List<DiagramImportResult> results = new ArrayList<>(diagrams.size());
+        if (diagrams.isEmpty()) {
+            return results;
+        }
+
+        Executor executor = this.executor;
+        ExecutorService temporaryExecutor = null;
+        if (executor == null) {
+            temporaryExecutor = Executors.newFixedThreadPool(Math.min(diagrams.size(), Runtime.getRuntime().availableProcessors()));
+            executor = temporaryExecutor;
+        }
+
+        try {
+            List<CompletableFuture<DiagramImportResult>> futures = new ArrayList<>(diagrams.size());
+            for (Map.Entry<ImageView, T> entry : diagrams.entrySet()) {
+                ImageView view = entry.getKey();
+                T diagram = entry.getValue();
+
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        diagramImport.importDiagram(view, diagram);
+                        return new DiagramImportResult(view, null);
+                    } catch (Exception e) {
+                        return new DiagramImportResult(view, e);
+                    }
+                }, executor));
+            }
+
+            for (CompletableFuture<DiagramImportResult> future : futures) {
+                results.add(future.join());
+            }
+        } finally {
+            if (temporaryExecutor != null) {
+                temporaryExecutor.shutdown();
+            }
+        }
+
+        return results;
+    }
+
+    protected <E extends Exception> String createUrl(EncodedDiagramCache.UrlFactory<E> factory, String... key) throws E {
+        if (cache == null) {
+            return factory.create();
+        }
+
+        return cache.get(factory, key);
+    }
+
+    /**
+     * Starts recording the import of a diagram file or definition, for the import listener (if there is one).
+     */
+    protected FileImport startImport(String path) {
+        return FileImport.start(importListener, this, path);
+    }
+
+    /**
+     * Imports a diagram file, by reading it and passing its content to the specified diagram definition import
+     * (i.e. the importer's public, overridable, String overload), which records its work against this file's
+     * import via importDefinition(String, DefinitionImport).
+     */
+    protected void importDiagramFile(ImageView view, File file, DiagramImport<String> definitionImport) throws Exception {
+        FileImport fileImport = startImport(file.getPath());
+        try {
+            String content = readDiagram(file, fileImport);
+            view.setTitle(file.getName());
+
+            fileImportInProgress.set(fileImport);
+            try {
+                definitionImport.importDiagram(view, content);
+            } finally {
+                fileImportInProgress.remove();
+            }
+            fileImport.finished();
+        } catch (Exception e) {
+            fileImport.failed(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Imports a diagram definition, recording the import against the file being imported by importDiagramFile
+     * (which reports the outcome) or, if there isn't one, as an import of its own.
+     */
+    protected <E extends Exception> void importDefinition(String key, DefinitionImport<E> definitionImport) throws E {
+        FileImport fileImport = fileImportInProgress.get();
+        if (fileImport != null) {
+            // any further definitions imported on this thread are recorded separately
+            fileImportInProgress.remove();
+            definitionImport.importDiagram(fileImport);
+            return;
+        }
+
+        fileImport = startImport(key);
+        try {
+            definitionImport.importDiagram(fileImport);
+            fileImport.finished();
+        } catch (Exception e) {
+            fileImport.failed(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Reads a diagram definition from a file, recording the number of bytes read.
+     */
+    protected String readDiagram(File file, FileImport fileImport) throws IOException {
+        byte[] bytes = JfrEvents.readFile(file.toPath());
+        fileImport.read(bytes.length);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * As createUrl(UrlFactory, String...), recording the time spent encoding the diagram (on a cache miss).
+     */
+    protected <E extends Exception> String createUrl(FileImport fileImport, EncodedDiagramCache.UrlFactory<E> factory, String... key) throws E {
+        return createUrl(() -> {
+            fileImport.encodeStarted();
+            String url = factory.create();
+            fileImport.encodeFinished();
+
+            return url;
+        }, key);
+    }
+
+    /**
+     * Returns the content for a view: the URL of the rendered diagram, or the rendered diagram itself as a
+     * data URI if the named view/viewset property is set to "true". The key identifies the rendered diagram
+     * in the rendered diagram cache (if there is one).
+     */
+    protected String createContent(ImageView view, String inlinePropertyName, String url, String contentType, String... key) {
+        if (!Boolean.parseBoolean(getViewOrViewSetProperty(view, inlinePropertyName))) {
+            return url;
+        }
+
+        DiagramRenderer renderer = this.renderer != null ? this.renderer : SharedRenderer.INSTANCE;
+        try {
+            byte[] bytes;
+            if (renderedDiagramCache != null) {
+                bytes = renderedDiagramCache.get(() -> renderer.render(url), key);
+            } else {
+                bytes = renderer.render(url);
+            }
+
+            return DiagramRenderer.toDataUri(bytes, contentType);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DiagramImportException("Interrupted while rendering " + url, e);
+        } catch (IOException e) {
+            throw new DiagramImportException("Unable to render " + url, e);
+        }
+    }
+
     protected String getViewOrViewSetProperty(View view, String name) {
         ViewSet views = view.getViewSet();
 
@@ -30,4 +258,30 @@ public abstract class AbstractDiagramImporter {
                 );
     }
 
-}
+    private static final class SharedRenderer {
+
+        private static final DiagramRenderer INSTANCE = new DiagramRenderer();
+
+    }
+
+    /**
+     * Imports a single diagram (from a file or source) into a view, as part of a batch.
+     */
+    @FunctionalInterface
+    protected interface DiagramImport<T> {
+
+        void importDiagram(ImageView view, T diagram) throws Exception;
+
+    }
+
+    /**
+     * Imports a diagram definition, recording its work against the specified import.
+     */
+    @FunctionalInterface
+    protected interface DefinitionImport<E extends Exception> {
+
+        void importDiagram(FileImport fileImport) throws E;
+
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.structurizr.importer.diagrams;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+
+/**
+ * A thread-safe pool of Deflater instances, shared by the diagram encoders. Deflaters hold native zlib memory
+ * that is otherwise only released on garbage collection, so they are reset and reused rather than recreated
+ * for every diagram. Deflaters that don't fit back into the (bounded) pool are ended immediately.
+ */
+public final class DeflaterPool {
+
+    private static final int MAXIMUM_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
+    private static final Map<String, DeflaterPool> POOLS = new ConcurrentHashMap<>();
+
+    private final int level;
+    private final boolean nowrap;
+    private final BlockingQueue<Deflater> deflaters = new ArrayBlockingQueue<>(MAXIMUM_SIZE);
+
+    private DeflaterPool(int level, boolean nowrap) {
+        this.level = level;
+        this.nowrap = nowrap;
+    }
+
+    /**
+     * Gets the shared pool for the given compression level and format.
+     *
+     * @param level     a compression level between 0 and 9, or -1 for the zlib default
+     * @param nowrap    true to produce raw deflate data (no zlib header and checksum)
+     * @return  a DeflaterPool instance
+     */
+    public static DeflaterPool getInstance(int level, boolean nowrap) {
+        if ((level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) && level != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("Expected a compression level between 0 and 9");
+        }
+
+        return POOLS.computeIfAbsent(level + (nowrap ? "/nowrap" : ""), key -> new DeflaterPool(level, nowrap));
+    }
+
+    /**
+     * Borrows a Deflater from the pool, creating one if the pool is empty. Deflaters must be given back
+     * with release(Deflater) once the compressed output has been read.
+     *
+     * @return  a Deflater instance
+     */
+    public Deflater borrow() {
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(level, nowrap);
+        }
+
+        return deflater;
+    }
+
+    /**
+     * Resets the given Deflater and returns it to the pool, or ends it if the pool is full.
+     *
+     * @param deflater  a Deflater that was previously borrowed from this pool
+     */
+    public void release(Deflater deflater) {
+        deflater.reset();
+        if (!deflaters.offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Ends all of the Deflaters currently held by this pool, releasing their native memory.
+     */
+    public void clear() {
+        Deflater deflater = deflaters.poll();
+        while (deflater != null) {
+            deflater.end();
+            deflater = deflaters.poll();
+        }
+    }
+
+    int size() {
+        return deflaters.size();
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.structurizr.importer.diagrams;
+
+public class DiagramImportException extends RuntimeException {
+
+    public DiagramImportException(Throwable cause) {
+        super(cause);
+    }
+
+    public DiagramImportException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
\ No newline at end of file
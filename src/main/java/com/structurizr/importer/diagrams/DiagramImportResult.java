@@ -0,0 +1,45 @@
+package com.structurizr.importer.diagrams;
+
+import com.structurizr.view.ImageView;
+
+/**
+ * The result of importing a single diagram as part of a batch.
+ */
+public final class DiagramImportResult {
+
+    private final ImageView view;
+    private final Exception exception;
+
+    DiagramImportResult(ImageView view, Exception exception) {
+        this.view = view;
+        this.exception = exception;
+    }
+
+    /**
+     * Gets the view that the diagram was imported into.
+     *
+     * @return  an ImageView instance
+     */
+    public ImageView getView() {
+        return view;
+    }
+
+    /**
+     * Determines whether the diagram was imported successfully.
+     *
+     * @return  true if the diagram was imported, false otherwise
+     */
+    public boolean isSuccessful() {
+        return exception == null;
+    }
+
+    /**
+     * Gets the exception thrown while importing the diagram.
+     *
+     * @return  an Exception, or null if the diagram was imported successfully
+     */
+    public Exception getException() {
+        return exception;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.structurizr.importer.diagrams;
+
+import com.structurizr.importer.jfr.JfrEvents;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Fetches rendered diagrams from a PlantUML, Kroki or Mermaid server, so that they can be inlined into
+ * a workspace as data URIs. A single (HTTP/2 capable) client is shared, with a limit on the number of
+ * concurrent requests, a per-request timeout, and retries for failed requests.
+ */
+public final class DiagramRenderer {
+
+    private static final int DEFAULT_MAXIMUM_CONCURRENT_REQUESTS = 8;
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+    private static final int DEFAULT_RETRIES = 2;
+    private static final long RETRY_DELAY_IN_MILLISECONDS = 250;
+
+    private final HttpClient httpClient;
+    private final Semaphore requests;
+    private final Duration timeout;
+    private final int retries;
+
+    /**
+     * Creates a renderer with the default settings (8 concurrent requests, a 30 second timeout, and 2 retries).
+     */
+    public DiagramRenderer() {
+        this(DEFAULT_MAXIMUM_CONCURRENT_REQUESTS, DEFAULT_TIMEOUT, DEFAULT_RETRIES);
+    }
+
+    /**
+     * Creates a renderer with the specified settings.
+     *
+     * @param maximumConcurrentRequests     the maximum number of requests in flight at any one time
+     * @param timeout                       the timeout for each request
+     * @param retries                       the number of times a failed request is retried
+     */
+    public DiagramRenderer(int maximumConcurrentRequests, Duration timeout, int retries) {
+        if (maximumConcurrentRequests < 1) {
+            throw new IllegalArgumentException("The maximum number of concurrent requests must be greater than zero.");
+        }
+
+        if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("A timeout must be specified.");
+        }
+
+        if (retries < 0) {
+            throw new IllegalArgumentException("The number of retries must be zero or more.");
+        }
+
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.requests = new Semaphore(maximumConcurrentRequests);
+        this.timeout = timeout;
+        this.retries = retries;
+    }
+
+    /**
+     * Fetches the rendered diagram at the specified URL.
+     *
+     * @param url       the URL of the rendered diagram
+     * @return  the rendered diagram, as bytes
+     * @throws IOException  if the diagram can't be fetched, after retrying
+     * @throws InterruptedException     if the thread is interrupted while waiting
+     */
+    public byte[] render(String url) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(timeout).GET().build();
+
+        IOException lastException = null;
+        for (int attempt = 0; attempt <= retries; attempt++) {
+            if (attempt > 0) {
+                Thread.sleep(RETRY_DELAY_IN_MILLISECONDS * (1L << (attempt - 1)));
+            }
+
+            requests.acquire();
+            try {
+                HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                int statusCode = response.statusCode();
+                if (statusCode >= 200 && statusCode < 300) {
+                    return response.body();
+                }
+
+                lastException = new IOException(url + " returned HTTP " + statusCode);
+                if (statusCode != 429 && statusCode < 500) {
+                    // the request is wrong, so retrying won't help
+                    break;
+                }
+            } catch (IOException e) {
+                lastException = e;
+            } finally {
+                requests.release();
+            }
+        }
+
+        throw lastException;
+    }
+
+    /**
+     * Fetches the rendered diagram at the specified URL, and returns it as a base64 encoded data URI.
+     *
+     * @param url           the URL of the rendered diagram
+     * @param contentType   the content type of the rendered diagram (e.g. "image/png")
+     * @return  a data URI
+     * @throws IOException  if the diagram can't be fetched, after retrying
+     * @throws InterruptedException     if the thread is interrupted while waiting
+     */
+    public String renderAsDataUri(String url, String contentType) throws IOException, InterruptedException {
+        return toDataUri(render(url), contentType);
+    }
+
+    static String toDataUri(byte[] bytes, String contentType) {
+        String base64 = JfrEvents.base64(null, bytes.length, () -> Base64.getEncoder().encodeToString(bytes));
+
+        return "data:" + contentType + ";base64," + base64;
+    }
+
+}
\ No newline at end of file
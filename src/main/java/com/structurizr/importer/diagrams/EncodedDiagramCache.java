@@ -0,0 +1,216 @@
+package com.structurizr.importer.diagrams;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, least recently used cache of encoded diagram URLs, keyed on a hash of the diagram source plus
+ * everything else that affects the URL (renderer, server, format, etc). A single cache can be shared between
+ * the PlantUML, Kroki and Mermaid importers, and between threads.
+ *
+ * The cache can optionally be persisted to a file, so that it survives between builds.
+ */
+public final class EncodedDiagramCache {
+
+    private static final char SEPARATOR = '\t';
+
+    private final int maximumSize;
+    private final File file;
+    private final Map<String,String> urlsByKey;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates an in-memory cache.
+     *
+     * @param maximumSize   the maximum number of encoded diagrams to keep
+     */
+    public EncodedDiagramCache(int maximumSize) {
+        this(maximumSize, null);
+    }
+
+    /**
+     * Creates a cache that is loaded from (if it exists) and saved to the specified file.
+     *
+     * @param maximumSize   the maximum number of encoded diagrams to keep
+     * @param file          the file to persist the cache to
+     */
+    public EncodedDiagramCache(int maximumSize, File file) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("The maximum size must be greater than zero.");
+        }
+
+        this.maximumSize = maximumSize;
+        this.file = file;
+        this.urlsByKey = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > EncodedDiagramCache.this.maximumSize;
+            }
+        };
+
+        if (file != null && file.isFile()) {
+            load();
+        }
+    }
+
+    /**
+     * Gets the encoded URL for a diagram, creating it (and adding it to the cache) if it's not cached already.
+     *
+     * @param factory   used to create the URL when there's a cache miss
+     * @param parts     the diagram source, plus everything else that the URL depends upon
+     * @param <E>       the type of exception thrown by the factory
+     * @return  the encoded URL
+     * @throws E        if the URL can't be created
+     */
+    public <E extends Exception> String get(UrlFactory<E> factory, String... parts) throws E {
+        String key = key(parts);
+
+        String url;
+        synchronized (urlsByKey) {
+            url = urlsByKey.get(key);
+        }
+
+        if (url != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            url = factory.create();
+
+            synchronized (urlsByKey) {
+                urlsByKey.put(key, url);
+            }
+        }
+
+        return url;
+    }
+
+    /**
+     * Gets the number of encoded diagrams in the cache.
+     *
+     * @return  the number of entries
+     */
+    public int size() {
+        synchronized (urlsByKey) {
+            return urlsByKey.size();
+        }
+    }
+
+    /**
+     * Gets the number of times an encoded diagram was found in the cache.
+     *
+     * @return  the number of cache hits
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of times an encoded diagram was not found in the cache.
+     *
+     * @return  the number of cache misses
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Removes all encoded diagrams from the cache.
+     */
+    public void clear() {
+        synchronized (urlsByKey) {
+            urlsByKey.clear();
+        }
+    }
+
+    /**
+     * Saves the cache to the file it was created with.
+     *
+     * @throws IOException  if the file can't be written
+     */
+    public void save() throws IOException {
+        if (file == null) {
+            throw new IllegalStateException("This cache was not created with a file.");
+        }
+
+        File directory = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(directory.toPath());
+
+        File temporaryFile = File.createTempFile(file.getName(), ".tmp", directory);
+        try {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temporaryFile), StandardCharsets.UTF_8))) {
+                synchronized (urlsByKey) {
+                    // least recently used first, so that the order is preserved when the cache is loaded
+                    for (Map.Entry<String,String> entry : urlsByKey.entrySet()) {
+                        writer.write(entry.getKey());
+                        writer.write(SEPARATOR);
+                        writer.write(entry.getValue());
+                        writer.write('\n');
+                    }
+                }
+            }
+
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile.toPath());
+        }
+    }
+
+    private void load() {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            while (line != null) {
+                int index = line.indexOf(SEPARATOR);
+                if (index > 0) {
+                    urlsByKey.put(line.substring(0, index), line.substring(index + 1));
+                }
+
+                line = reader.readLine();
+            }
+        } catch (IOException e) {
+            // an unreadable cache file is treated as an empty cache
+            urlsByKey.clear();
+        }
+    }
+
+    static String key(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                if (part != null) {
+                    digest.update(part.getBytes(StandardCharsets.UTF_8));
+                }
+                digest.update((byte)0);
+            }
+
+            StringBuilder buf = new StringBuilder(64);
+            for (byte b : digest.digest()) {
+                buf.append(Character.forDigit((b >> 4) & 0xF, 16));
+                buf.append(Character.forDigit(b & 0xF, 16));
+            }
+
+            return buf.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Creates an encoded diagram URL, when it's not found in the cache.
+     */
+    @FunctionalInterface
+    public interface UrlFactory<E extends Exception> {
+
+        String create() throws E;
+
+    }
+
+}
\ No newline at end of file
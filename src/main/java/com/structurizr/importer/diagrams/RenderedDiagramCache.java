@@ -0,0 +1,226 @@
+package com.structurizr.importer.diagrams;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A persistent cache of rendered diagrams, stored as one file per diagram in a directory, named after a hash of
+ * the diagram source plus everything else that affects the output (renderer, format, server, etc).
+ *
+ * Files are written to a temporary file and atomically moved into place, so the directory can be shared by
+ * several build processes. When the total size of the cached diagrams exceeds the maximum size, the least
+ * recently used diagrams (by last modified time, which is updated on every cache hit) are removed.
+ */
+public final class RenderedDiagramCache {
+
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final long maximumSizeInBytes;
+    private final AtomicLong sizeInBytes = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates a cache in the specified directory, which is created if it doesn't exist.
+     *
+     * @param directory             the directory to store rendered diagrams in
+     * @param maximumSizeInBytes    the maximum total size of the rendered diagrams to keep
+     * @throws IOException  if the directory can't be created or read
+     */
+    public RenderedDiagramCache(File directory, long maximumSizeInBytes) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("A directory must be specified.");
+        }
+
+        if (maximumSizeInBytes < 1) {
+            throw new IllegalArgumentException("The maximum size must be greater than zero.");
+        }
+
+        this.directory = directory.toPath();
+        this.maximumSizeInBytes = maximumSizeInBytes;
+
+        Files.createDirectories(this.directory);
+        sizeInBytes.set(sum(listEntries()));
+    }
+
+    /**
+     * Gets a rendered diagram, rendering it (and adding it to the cache) if it's not cached already.
+     *
+     * @param factory   used to render the diagram when there's a cache miss
+     * @param parts     the diagram source, plus everything else that the rendered diagram depends upon
+     * @return  the rendered diagram, as bytes
+     * @throws IOException  if the diagram can't be rendered
+     * @throws InterruptedException     if the thread is interrupted while rendering
+     */
+    public byte[] get(DiagramFactory factory, String... parts) throws IOException, InterruptedException {
+        Path file = directory.resolve(EncodedDiagramCache.key(parts));
+
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            file.toFile().setLastModified(System.currentTimeMillis());
+            hits.incrementAndGet();
+
+            return bytes;
+        } catch (IOException e) {
+            // not cached, or removed by another process while being read
+        }
+
+        misses.incrementAndGet();
+        byte[] bytes = factory.render();
+
+        try {
+            write(file, bytes);
+            if (sizeInBytes.addAndGet(bytes.length) > maximumSizeInBytes) {
+                evict();
+            }
+        } catch (IOException e) {
+            // the cache is an optimisation, so failing to write to it doesn't fail the import
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Gets the number of times a rendered diagram was found in the cache.
+     *
+     * @return  the number of cache hits
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of times a rendered diagram was not found in the cache.
+     *
+     * @return  the number of cache misses
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the number of rendered diagrams removed from the cache by this instance, to keep it within the maximum size.
+     *
+     * @return  the number of evictions
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Gets the total size of the rendered diagrams in the cache directory.
+     *
+     * @return  a size in bytes
+     * @throws IOException  if the directory can't be read
+     */
+    public long getSizeInBytes() throws IOException {
+        return sum(listEntries());
+    }
+
+    /**
+     * Removes all rendered diagrams from the cache directory.
+     *
+     * @throws IOException  if the directory can't be read
+     */
+    public void clear() throws IOException {
+        for (Entry entry : listEntries()) {
+            Files.deleteIfExists(entry.path);
+        }
+        sizeInBytes.set(0);
+    }
+
+    private void write(Path file, byte[] bytes) throws IOException {
+        Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), TEMPORARY_FILE_SUFFIX);
+        try {
+            Files.write(temporaryFile, bytes);
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private synchronized void evict() throws IOException {
+        // other processes may be writing to the same directory, so the size is recalculated from the directory itself
+        List<Entry> entries = listEntries();
+        long size = sum(entries);
+
+        entries.sort(Comparator.comparingLong(entry -> entry.lastModified));
+        for (Entry entry : entries) {
+            if (size <= maximumSizeInBytes) {
+                break;
+            }
+
+            if (Files.deleteIfExists(entry.path)) {
+                evictions.incrementAndGet();
+            }
+            size -= entry.size;
+        }
+
+        sizeInBytes.set(size);
+    }
+
+    private List<Entry> listEntries() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                if (path.getFileName().toString().endsWith(TEMPORARY_FILE_SUFFIX)) {
+                    continue;
+                }
+
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                    if (attributes.isRegularFile()) {
+                        entries.add(new Entry(path, attributes.size(), attributes.lastModifiedTime().toMillis()));
+                    }
+                } catch (NoSuchFileException e) {
+                    // removed by another process
+                }
+            }
+        }
+
+        return entries;
+    }
+
+    private static long sum(List<Entry> entries) {
+        long size = 0;
+        for (Entry entry : entries) {
+            size += entry.size;
+        }
+
+        return size;
+    }
+
+    private static final class Entry {
+
+        private final Path path;
+        private final long size;
+        private final long lastModified;
+
+        private Entry(Path path, long size, long lastModified) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+    }
+
+    /**
+     * Renders a diagram, when it's not found in the cache.
+     */
+    @FunctionalInterface
+    public interface DiagramFactory {
+
+        byte[] render() throws IOException, InterruptedException;
+
+    }
+
+}
\ No newline at end of file
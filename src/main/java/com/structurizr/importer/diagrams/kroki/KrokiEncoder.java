@@ -1,30 +1,54 @@
 package com.structurizr.importer.diagrams.kroki;
 
+import com.structurizr.importer.diagrams.DeflaterPool;
+import com.structurizr.importer.jfr.JfrEvents;
+
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
 /**
  * See https://docs.kroki.io/kroki/setup/encode-diagram/#java
  */
 class KrokiEncoder {
 
-    public String encode(String decoded) throws IOException {
-        byte[] bytes = Base64.getUrlEncoder().encode(compress(decoded.getBytes()));
-        return new String(bytes, StandardCharsets.UTF_8);
+    private static final int BUFFER_SIZE = 8192;
+
+    private final DeflaterPool deflaterPool;
+
+    KrokiEncoder() {
+        this(Deflater.BEST_COMPRESSION);
     }
 
-    private byte[] compress(byte[] source) throws IOException {
-        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
-        deflater.setInput(source);
-        deflater.finish();
+    KrokiEncoder(int compressionLevel) {
+        this.deflaterPool = DeflaterPool.getInstance(compressionLevel, false);
+    }
+
+    public String encode(String decoded) throws IOException {
+        byte[] source = decoded.getBytes(StandardCharsets.UTF_8);
+
+        // deflate straight into the base64 encoder, so there's no limit on the size of the compressed diagram
+        // (this means that the deflate event includes the time spent base64 encoding)
+        Deflater deflater = deflaterPool.borrow();
+        try {
+            ByteArrayOutputStream encoded = JfrEvents.deflate(deflater, () -> {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, source.length / 2));
+                try (OutputStream out = new DeflaterOutputStream(Base64.getUrlEncoder().wrap(buffer), deflater, BUFFER_SIZE)) {
+                    out.write(source);
+                }
+
+                return buffer;
+            });
 
-        byte[] buffer = new byte[2048];
-        int compressedLength = deflater.deflate(buffer);
-        byte[] result = new byte[compressedLength];
-        System.arraycopy(buffer, 0, result, 0, compressedLength);
-        return result;
+            // base64 output is always ASCII
+            return encoded.toString(StandardCharsets.ISO_8859_1);
+        } finally {
+            deflaterPool.release(deflater);
+        }
     }
 
 }
\ No newline at end of file
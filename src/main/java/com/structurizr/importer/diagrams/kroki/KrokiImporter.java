@@ -1,26 +1,70 @@
 package com.structurizr.importer.diagrams.kroki;
 
+import com.structurizr.importer.FileImport;
 import com.structurizr.importer.diagrams.AbstractDiagramImporter;
+import com.structurizr.importer.diagrams.DiagramImportResult;
 import com.structurizr.util.StringUtils;
 import com.structurizr.view.ImageView;
 
 import java.io.File;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
 
 public class KrokiImporter extends AbstractDiagramImporter {
 
     private static final String KROKI_URL_PROPERTY = "kroki.url";
     private static final String KROKI_FORMAT_PROPERTY = "kroki.format";
+    private static final String KROKI_INLINE_PROPERTY = "kroki.inline";
 
-    public void importDiagram(ImageView view, String format, File file) throws Exception {
-        String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
-        view.setTitle(file.getName());
+    private int compressionLevel = Deflater.BEST_COMPRESSION;
+
+    /**
+     * Sets the compression level used when encoding diagrams (the default is 9, the best but slowest compression).
+     *
+     * @param compressionLevel      a compression level between 0 and 9
+     */
+    public void setCompressionLevel(int compressionLevel) {
+        if (compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Expected a compression level between 0 and 9");
+        }
+
+        this.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * Imports a batch of Kroki diagrams from files, concurrently. A failure to import one diagram
+     * doesn't stop the others from being imported.
+     *
+     * @param format    the Kroki diagram type (e.g. "graphviz")
+     * @param files     a map of views to diagram files
+     * @return  a result per view, in the iteration order of the map
+     */
+    public List<DiagramImportResult> importDiagramFiles(String format, Map<ImageView, File> files) {
+        return importDiagrams(files, (view, file) -> importDiagram(view, format, file));
+    }
+
+    /**
+     * Imports a batch of Kroki diagram definitions, concurrently. A failure to import one diagram
+     * doesn't stop the others from being imported.
+     *
+     * @param format        the Kroki diagram type (e.g. "graphviz")
+     * @param definitions   a map of views to diagram definitions
+     * @return  a result per view, in the iteration order of the map
+     */
+    public List<DiagramImportResult> importDiagrams(String format, Map<ImageView, String> definitions) {
+        return importDiagrams(definitions, (view, content) -> importDiagram(view, format, content));
+    }
 
-        importDiagram(view, format, content);
+    public void importDiagram(ImageView view, String format, File file) throws Exception {
+        importDiagramFile(view, file, (v, content) -> importDiagram(v, format, content));
     }
 
     public void importDiagram(ImageView view, String format, String content) throws Exception {
+        importDefinition(view.getKey(), fileImport -> importDiagram(view, format, content, fileImport));
+    }
+
+    private void importDiagram(ImageView view, String format, String content, FileImport fileImport) throws Exception {
         String krokiServer = getViewOrViewSetProperty(view, KROKI_URL_PROPERTY);
         if (StringUtils.isNullOrEmpty(krokiServer)) {
             throw new IllegalArgumentException("Please define a view/viewset property named " + KROKI_URL_PROPERTY + " to specify your Kroki server");
@@ -35,11 +79,16 @@ public class KrokiImporter extends AbstractDiagramImporter {
             throw new IllegalArgumentException(String.format("Expected a format of %s or %s", PNG_FORMAT, SVG_FORMAT));
         }
 
-        String encodedDiagram = new KrokiEncoder().encode(content);
-        String url = String.format("%s/%s/%s/%s", krokiServer, format, imageFormat, encodedDiagram);
+        String diagramFormat = imageFormat;
+        String url = createUrl(fileImport, () -> {
+            String encodedDiagram = new KrokiEncoder(compressionLevel).encode(content);
+            return String.format("%s/%s/%s/%s", krokiServer, format, diagramFormat, encodedDiagram);
+        }, "kroki", krokiServer, format, imageFormat, String.valueOf(compressionLevel), content);
 
-        view.setContent(url);
-        view.setContentType(CONTENT_TYPES_BY_FORMAT.get(imageFormat));
+        String contentType = CONTENT_TYPES_BY_FORMAT.get(imageFormat);
+        view.setContent(createContent(view, KROKI_INLINE_PROPERTY, url, contentType, "kroki", krokiServer, format, imageFormat, content));
+        fileImport.produced(view.getContent().length());
+        view.setContentType(contentType);
     }
 
 }
\ No newline at end of file
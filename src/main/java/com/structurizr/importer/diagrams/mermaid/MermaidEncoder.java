@@ -1,5 +1,7 @@
 package com.structurizr.importer.diagrams.mermaid;
 
+import com.structurizr.importer.jfr.JfrEvents;
+
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 
@@ -9,7 +11,9 @@ import java.util.Base64;
 public class MermaidEncoder {
 
     public String encode(String mermaidDefinition) {
-        return Base64.getUrlEncoder().encodeToString(mermaidDefinition.getBytes(StandardCharsets.UTF_8));
+        byte[] bytes = mermaidDefinition.getBytes(StandardCharsets.UTF_8);
+
+        return JfrEvents.base64(null, bytes.length, () -> Base64.getUrlEncoder().encodeToString(bytes));
     }
 
 }
\ No newline at end of file
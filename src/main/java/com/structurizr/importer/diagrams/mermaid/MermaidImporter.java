@@ -1,26 +1,52 @@
 package com.structurizr.importer.diagrams.mermaid;
 
+import com.structurizr.importer.FileImport;
 import com.structurizr.importer.diagrams.AbstractDiagramImporter;
+import com.structurizr.importer.diagrams.DiagramImportResult;
 import com.structurizr.util.StringUtils;
 import com.structurizr.view.ImageView;
 
 import java.io.File;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
 
 public class MermaidImporter extends AbstractDiagramImporter {
 
     private static final String MERMAID_URL_PROPERTY = "mermaid.url";
     private static final String MERMAID_FORMAT_PROPERTY = "mermaid.format";
+    private static final String MERMAID_INLINE_PROPERTY = "mermaid.inline";
 
-    public void importDiagram(ImageView view, File file) throws Exception {
-        String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
-        view.setTitle(file.getName());
+    /**
+     * Imports a batch of Mermaid diagrams from files, concurrently. A failure to import one diagram
+     * doesn't stop the others from being imported.
+     *
+     * @param files     a map of views to Mermaid files
+     * @return  a result per view, in the iteration order of the map
+     */
+    public List<DiagramImportResult> importDiagramFiles(Map<ImageView, File> files) {
+        return importDiagrams(files, this::importDiagram);
+    }
+
+    /**
+     * Imports a batch of Mermaid diagram definitions, concurrently. A failure to import one diagram
+     * doesn't stop the others from being imported.
+     *
+     * @param definitions   a map of views to Mermaid diagram definitions
+     * @return  a result per view, in the iteration order of the map
+     */
+    public List<DiagramImportResult> importDiagrams(Map<ImageView, String> definitions) {
+        return importDiagrams(definitions, this::importDiagram);
+    }
 
-        importDiagram(view, content);
+    public void importDiagram(ImageView view, File file) throws Exception {
+        importDiagramFile(view, file, this::importDiagram);
     }
 
     public void importDiagram(ImageView view, String content) {
+        importDefinition(view.getKey(), fileImport -> importDiagram(view, content, fileImport));
+    }
+
+    private void importDiagram(ImageView view, String content, FileImport fileImport) {
         String mermaidServer = getViewOrViewSetProperty(view, MERMAID_URL_PROPERTY);
         if (StringUtils.isNullOrEmpty(mermaidServer)) {
             throw new IllegalArgumentException("Please define a view/viewset property named " + MERMAID_URL_PROPERTY + " to specify your Mermaid server");
@@ -35,16 +61,20 @@ public class MermaidImporter extends AbstractDiagramImporter {
             throw new IllegalArgumentException(String.format("Expected a format of %s or %s", PNG_FORMAT, SVG_FORMAT));
         }
 
-        String encodedMermaid = new MermaidEncoder().encode(content);
-        String url;
-        if (format.equals(PNG_FORMAT)) {
-            url = String.format("%s/img/%s?type=png", mermaidServer, encodedMermaid);
-        } else {
-            url = String.format("%s/svg/%s", mermaidServer, encodedMermaid);
-        }
+        String imageFormat = format;
+        String url = createUrl(fileImport, () -> {
+            String encodedMermaid = new MermaidEncoder().encode(content);
+            if (imageFormat.equals(PNG_FORMAT)) {
+                return String.format("%s/img/%s?type=png", mermaidServer, encodedMermaid);
+            } else {
+                return String.format("%s/svg/%s", mermaidServer, encodedMermaid);
+            }
+        }, "mermaid", mermaidServer, format, content);
 
-        view.setContent(url);
-        view.setContentType(CONTENT_TYPES_BY_FORMAT.get(format));
+        String contentType = CONTENT_TYPES_BY_FORMAT.get(format);
+        view.setContent(createContent(view, MERMAID_INLINE_PROPERTY, url, contentType, "mermaid", mermaidServer, format, content));
+        fileImport.produced(view.getContent().length());
+        view.setContentType(contentType);
     }
 
 }
\ No newline at end of file
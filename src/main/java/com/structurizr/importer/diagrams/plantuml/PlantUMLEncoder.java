@@ -1,9 +1,11 @@
 package com.structurizr.importer.diagrams.plantuml;
 
-import java.io.ByteArrayOutputStream;
+import com.structurizr.importer.diagrams.DeflaterPool;
+import com.structurizr.importer.jfr.JfrEvents;
+
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.zip.Deflater;
-import java.util.zip.DeflaterOutputStream;
 
 /**
  *  A Java implementation of http://plantuml.com/code-javascript-synchronous
@@ -11,63 +13,72 @@ import java.util.zip.DeflaterOutputStream;
  */
 class PlantUMLEncoder {
 
-    String encode(String plantUMLDefinition) throws Exception {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+    private static final byte[] ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz-_".getBytes(StandardCharsets.US_ASCII);
 
-        DeflaterOutputStream dos = new DeflaterOutputStream(baos, deflater, true);
-        dos.write(plantUMLDefinition.getBytes(StandardCharsets.UTF_8));
-        dos.finish();
+    private final DeflaterPool deflaterPool;
+
+    PlantUMLEncoder() {
+        this(Deflater.BEST_COMPRESSION);
+    }
 
-        return encode(baos.toByteArray());
+    PlantUMLEncoder(int compressionLevel) {
+        this.deflaterPool = DeflaterPool.getInstance(compressionLevel, true);
     }
 
-    private String encode(byte[] bytes) {
-        StringBuilder buf = new StringBuilder();
-        for (int i = 0; i < bytes.length; i += 3) {
-            int b1 = (bytes[i]) & 0xFF;
-            int b2 = (i + 1 < bytes.length ? bytes[i + 1] : (byte)0) & 0xFF;
-            int b3 = (i + 2 < bytes.length ? bytes[i + 2] : (byte)0) & 0xFF;
+    String encode(String plantUMLDefinition) throws Exception {
+        byte[] source = plantUMLDefinition.getBytes(StandardCharsets.UTF_8);
+        byte[] buffer;
+        int length;
+
+        Deflater deflater = deflaterPool.borrow();
+        try {
+            deflater.setInput(source);
+            deflater.finish();
 
-            append3bytes(buf, b1, b2, b3);
+            buffer = JfrEvents.deflate(deflater, () -> deflate(deflater, Math.max(64, source.length / 2)));
+            length = (int)deflater.getBytesWritten();
+        } finally {
+            deflaterPool.release(deflater);
         }
 
-        return buf.toString();
+        return encode(buffer, length);
     }
 
-    private char encode6bit(byte b) {
-        if (b < 10) {
-            return (char) ('0' + b);
-        }
-        b -= 10;
-        if (b < 26) {
-            return (char) ('A' + b);
-        }
-        b -= 26;
-        if (b < 26) {
-            return (char) ('a' + b);
-        }
-        b -= 26;
-        if (b == 0) {
-            return '-';
-        }
-        if (b == 1) {
-            return '_';
+    private static byte[] deflate(Deflater deflater, int initialSize) {
+        byte[] buffer = new byte[initialSize];
+        int length = 0;
+
+        while (!deflater.finished()) {
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            length += deflater.deflate(buffer, length, buffer.length - length);
         }
 
-        return '?';
+        return buffer;
+    }
+
+    String encode(byte[] bytes, int length) {
+        return JfrEvents.base64(null, length, () -> encodeWithAlphabet(bytes, length));
     }
 
-    private void append3bytes(StringBuilder buf, int b1, int b2, int b3) {
-        int c1 = b1 >> 2;
-        int c2 = (b1 & 0x3) << 4 | b2 >> 4;
-        int c3 = (b2 & 0xF) << 2 | b3 >> 6;
-        int c4 = b3 & 0x3F;
+    private static String encodeWithAlphabet(byte[] bytes, int length) {
+        // every 3 bytes (the last group padded with zeros) becomes 4 characters
+        byte[] encoded = new byte[((length + 2) / 3) * 4];
+
+        int j = 0;
+        for (int i = 0; i < length; i += 3) {
+            int b1 = bytes[i] & 0xFF;
+            int b2 = i + 1 < length ? bytes[i + 1] & 0xFF : 0;
+            int b3 = i + 2 < length ? bytes[i + 2] & 0xFF : 0;
+
+            encoded[j++] = ALPHABET[b1 >> 2];
+            encoded[j++] = ALPHABET[(b1 & 0x3) << 4 | b2 >> 4];
+            encoded[j++] = ALPHABET[(b2 & 0xF) << 2 | b3 >> 6];
+            encoded[j++] = ALPHABET[b3 & 0x3F];
+        }
 
-        buf.append(encode6bit((byte)(c1 & 0x3F)));
-        buf.append(encode6bit((byte)(c2 & 0x3F)));
-        buf.append(encode6bit((byte)(c3 & 0x3F)));
-        buf.append(encode6bit((byte)(c4 & 0x3F)));
+        return new String(encoded, StandardCharsets.ISO_8859_1);
     }
 
 }
\ No newline at end of file
@@ -1,28 +1,70 @@
 package com.structurizr.importer.diagrams.plantuml;
 
+import com.structurizr.importer.FileImport;
 import com.structurizr.importer.diagrams.AbstractDiagramImporter;
+import com.structurizr.importer.diagrams.DiagramImportResult;
 import com.structurizr.util.StringUtils;
 import com.structurizr.view.ImageView;
 
 import java.io.File;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
 
 public class PlantUMLImporter extends AbstractDiagramImporter {
 
     private static final String PLANTUML_URL_PROPERTY = "plantuml.url";
     private static final String PLANTUML_FORMAT_PROPERTY = "plantuml.format";
+    private static final String PLANTUML_INLINE_PROPERTY = "plantuml.inline";
     private static final String TITLE_STRING = "title ";
     private static final String NEWLINE = "\n";
 
-    public void importDiagram(ImageView view, File file) throws Exception {
-        String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
-        view.setTitle(file.getName());
+    private int compressionLevel = Deflater.BEST_COMPRESSION;
+
+    /**
+     * Sets the compression level used when encoding diagrams (the default is 9, the best but slowest compression).
+     *
+     * @param compressionLevel      a compression level between 0 and 9
+     */
+    public void setCompressionLevel(int compressionLevel) {
+        if (compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Expected a compression level between 0 and 9");
+        }
+
+        this.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * Imports a batch of PlantUML diagrams from files, concurrently. A failure to import one diagram
+     * doesn't stop the others from being imported.
+     *
+     * @param files     a map of views to PlantUML files
+     * @return  a result per view, in the iteration order of the map
+     */
+    public List<DiagramImportResult> importDiagramFiles(Map<ImageView, File> files) {
+        return importDiagrams(files, this::importDiagram);
+    }
+
+    /**
+     * Imports a batch of PlantUML diagram definitions, concurrently. A failure to import one diagram
+     * doesn't stop the others from being imported.
+     *
+     * @param definitions   a map of views to PlantUML diagram definitions
+     * @return  a result per view, in the iteration order of the map
+     */
+    public List<DiagramImportResult> importDiagrams(Map<ImageView, String> definitions) {
+        return importDiagrams(definitions, this::importDiagram);
+    }
 
-        importDiagram(view, content);
+    public void importDiagram(ImageView view, File file) throws Exception {
+        importDiagramFile(view, file, this::importDiagram);
     }
 
     public void importDiagram(ImageView view, String content) throws Exception {
+        importDefinition(view.getKey(), fileImport -> importDiagram(view, content, fileImport));
+    }
+
+    private void importDiagram(ImageView view, String content, FileImport fileImport) throws Exception {
         String plantUMLServer = getViewOrViewSetProperty(view, PLANTUML_URL_PROPERTY);
         if (StringUtils.isNullOrEmpty(plantUMLServer)) {
             throw new IllegalArgumentException("Please define a view/viewset property named " + PLANTUML_URL_PROPERTY + " to specify your PlantUML server");
@@ -37,10 +79,15 @@ public class PlantUMLImporter extends AbstractDiagramImporter {
             throw new IllegalArgumentException(String.format("Expected a format of %s or %s", PNG_FORMAT, SVG_FORMAT));
         }
 
-        String encodedPlantUML = new PlantUMLEncoder().encode(content);
-        String url = String.format("%s/%s/%s", plantUMLServer, format, encodedPlantUML);
-        view.setContent(url);
-        view.setContentType(CONTENT_TYPES_BY_FORMAT.get(format));
+        String imageFormat = format;
+        String url = createUrl(fileImport, () -> {
+            String encodedPlantUML = new PlantUMLEncoder(compressionLevel).encode(content);
+            return String.format("%s/%s/%s", plantUMLServer, imageFormat, encodedPlantUML);
+        }, "plantuml", plantUMLServer, format, String.valueOf(compressionLevel), content);
+        String contentType = CONTENT_TYPES_BY_FORMAT.get(format);
+        view.setContent(createContent(view, PLANTUML_INLINE_PROPERTY, url, contentType, "plantuml", plantUMLServer, format, content));
+        fileImport.produced(view.getContent().length());
+        view.setContentType(contentType);
 
         String[] lines = content.split(NEWLINE);
         for (String line : lines) {
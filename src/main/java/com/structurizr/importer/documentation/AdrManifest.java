@@ -0,0 +1,271 @@
+package com.structurizr.importer.documentation;
+
+import com.structurizr.documentation.Decision;
+import com.structurizr.documentation.Format;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A record of the decision files imported by the AdrToolsDecisionImporter, keyed on the normalised absolute path
+ * of each file (so that one manifest can be shared by several ADR directories), along with the size,
+ * last modified time and content hash of each file, plus the decision that was parsed from it (including the
+ * link lines from its ## Status section, which are resolved against the other decisions on every import).
+ */
+final class AdrManifest {
+
+    private static final int MAGIC = 0x41445231; // "ADR1"
+    private static final int VERSION = 3;
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private final Map<String,Entry> entries = new HashMap<>();
+    private String settings;
+
+    Entry get(String path) {
+        return entries.get(path);
+    }
+
+    void put(Entry entry) {
+        entries.put(entry.path, entry);
+    }
+
+    void remove(String path) {
+        entries.remove(path);
+    }
+
+    /**
+     * Clears an in-memory manifest if it was built using different importer settings.
+     */
+    void useSettings(String settings) {
+        if (!settings.equals(this.settings)) {
+            entries.clear();
+            this.settings = settings;
+        }
+    }
+
+    /**
+     * Removes the entries for the files in the specified directory (but not its subdirectories),
+     * leaving the entries for any other directories that share this manifest.
+     */
+    void removeDirectory(Path directory) {
+        entries.keySet().removeIf(path -> directory.equals(Paths.get(path).getParent()));
+    }
+
+    /**
+     * Gets the key used for a file: its normalised absolute path.
+     */
+    static String key(File file) {
+        return file.toPath().toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * Reads a manifest, returning an empty manifest if the file doesn't exist, can't be read, or was written
+     * using different importer settings.
+     */
+    static AdrManifest read(File file, String settings) {
+        AdrManifest manifest = new AdrManifest();
+        if (file == null || !file.isFile()) {
+            return manifest;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !settings.equals(readString(in))) {
+                return manifest;
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                Entry entry = new Entry();
+                entry.path = readString(in);
+                entry.size = in.readLong();
+                entry.lastModified = in.readLong();
+                entry.hash = readString(in);
+                entry.id = readString(in);
+                entry.title = readString(in);
+                entry.date = in.readLong();
+                entry.status = readString(in);
+                entry.content = readString(in);
+                entry.format = readString(in);
+                entry.linkLines = readStrings(in);
+
+                manifest.put(entry);
+            }
+        } catch (IOException e) {
+            // a missing or corrupt manifest just means everything is imported again
+            return new AdrManifest();
+        }
+
+        return manifest;
+    }
+
+    void write(File file, String settings) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(directory.toPath());
+
+        // write to a temporary file first, so that a failed write never leaves a truncated manifest behind
+        File temporaryFile = File.createTempFile(file.getName(), ".tmp", directory);
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                writeString(out, settings);
+
+                out.writeInt(entries.size());
+                for (Entry entry : entries.values()) {
+                    writeString(out, entry.path);
+                    out.writeLong(entry.size);
+                    out.writeLong(entry.lastModified);
+                    writeString(out, entry.hash);
+                    writeString(out, entry.id);
+                    writeString(out, entry.title);
+                    out.writeLong(entry.date);
+                    writeString(out, entry.status);
+                    writeString(out, entry.content);
+                    writeString(out, entry.format);
+                    writeStrings(out, entry.linkLines);
+                }
+            }
+
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile.toPath());
+        }
+    }
+
+    /**
+     * Hashes the content of a decision, as it was parsed.
+     */
+    static String hash(String content) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+
+        StringBuilder buf = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            buf.append(Character.forDigit((b >> 4) & 0xF, 16));
+            buf.append(Character.forDigit(b & 0xF, 16));
+        }
+
+        return buf.toString();
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static void writeStrings(DataOutputStream out, String[] strings) throws IOException {
+        out.writeInt(strings.length);
+        for (String s : strings) {
+            writeString(out, s);
+        }
+    }
+
+    private static String[] readStrings(DataInputStream in) throws IOException {
+        String[] strings = new String[in.readInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = readString(in);
+        }
+
+        return strings;
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static final class Entry {
+
+        private String path;
+        private long size;
+        private long lastModified;
+        private String hash;
+
+        private String id;
+        private String title;
+        private long date;
+        private String status;
+        private String content;
+        private String format;
+        private String[] linkLines;
+
+        private Entry() {
+        }
+
+        Entry(String path, long size, long lastModified, String hash, Decision decision, String[] linkLines) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+
+            this.id = decision.getId();
+            this.title = decision.getTitle();
+            this.date = decision.getDate() != null ? decision.getDate().getTime() : NO_DATE;
+            this.status = decision.getStatus();
+            this.content = decision.getContent();
+            this.format = decision.getFormat() != null ? decision.getFormat().name() : null;
+            this.linkLines = linkLines;
+        }
+
+        boolean matches(long size, long lastModified) {
+            return this.size == size && this.lastModified == lastModified;
+        }
+
+        String getHash() {
+            return hash;
+        }
+
+        Entry withAttributes(long size, long lastModified) {
+            Entry entry = new Entry();
+            entry.path = path;
+            entry.size = size;
+            entry.lastModified = lastModified;
+            entry.hash = hash;
+            entry.id = id;
+            entry.title = title;
+            entry.date = date;
+            entry.status = status;
+            entry.content = content;
+            entry.format = format;
+            entry.linkLines = linkLines;
+
+            return entry;
+        }
+
+        String[] getLinkLines() {
+            return linkLines;
+        }
+
+        Decision toDecision() {
+            Decision decision = new Decision(id);
+            decision.setTitle(title);
+            decision.setDate(date != NO_DATE ? new Date(date) : null);
+            decision.setStatus(status);
+            decision.setContent(content);
+            decision.setFormat(format != null ? Format.valueOf(format) : null);
+
+            return decision;
+        }
+
+    }
+
+}
\ No newline at end of file
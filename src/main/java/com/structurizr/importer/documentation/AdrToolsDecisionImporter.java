@@ -3,14 +3,23 @@ package com.structurizr.importer.documentation;
 import com.structurizr.documentation.Decision;
 import com.structurizr.documentation.Documentable;
 import com.structurizr.documentation.Format;
+import com.structurizr.importer.FileImport;
+import com.structurizr.importer.ImportListener;
+import com.structurizr.importer.jfr.JfrEvents;
 import com.structurizr.util.StringUtils;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -44,16 +53,25 @@ public class AdrToolsDecisionImporter implements DocumentationImporter {
 
     private static final Pattern LINK_REGEX = Pattern.compile("(.*) \\[.*]\\((.*)\\)");
 
-    private String dateFormat = "yyyy-MM-dd";
-    private TimeZone timeZone = TimeZone.getDefault();
+    private static final String DEFAULT_DATE_FORMAT = "yyyy-MM-dd";
+
+    private volatile DateSettings dateSettings = new DateSettings(DEFAULT_DATE_FORMAT, TimeZone.getDefault());
+    private final ThreadLocal<CachedDateFormat> cachedDateFormat = new ThreadLocal<>();
+    private Executor executor;
+    private File manifest;
+    private ImportListener importListener;
 
     /**
-     * Sets the date format to use when parsing dates (the default is "yyyy-MM-dd").
+     * Sets the date format to use when parsing dates (the default is "yyyy-MM-dd"), using
+     * java.text.SimpleDateFormat pattern syntax.
      *
      * @param dateFormat    a date format, as a String
      */
     public void setDateFormat(String dateFormat) {
-        this.dateFormat = dateFormat;
+        // fail fast on an invalid pattern
+        new SimpleDateFormat(dateFormat);
+
+        this.dateSettings = new DateSettings(dateFormat, dateSettings.timeZone);
     }
 
     /**
@@ -62,7 +80,7 @@ public class AdrToolsDecisionImporter implements DocumentationImporter {
      * @param timeZone      a time zone as a String (e.g. "Europe/London" or "UTC")
      */
     public void setTimeZone(String timeZone) {
-        this.timeZone = TimeZone.getTimeZone(timeZone);
+        this.dateSettings = new DateSettings(dateSettings.pattern, TimeZone.getTimeZone(timeZone));
     }
 
     /**
@@ -71,7 +89,44 @@ public class AdrToolsDecisionImporter implements DocumentationImporter {
      * @param timeZone      a TimeZone instance
      */
     public void setTimeZone(TimeZone timeZone) {
-        this.timeZone = timeZone;
+        // TimeZone is mutable, so take a copy
+        this.dateSettings = new DateSettings(dateSettings.pattern, (TimeZone)timeZone.clone());
+    }
+
+    /**
+     * Sets the executor used to parse decision files concurrently (the default is null, which parses
+     * decision files sequentially on the calling thread). Decisions are added to the documentation
+     * in the same order, and linked in the same way, regardless of this setting.
+     *
+     * @param executor      an Executor instance, or null to parse decision files sequentially
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Sets the file used to record the decision files that have been imported (the default is null, which
+     * disables incremental imports). When set, the size, last modified time and content hash of each decision file
+     * is recorded alongside the parsed decision, and subsequent imports only read and parse decision files that
+     * have been added or changed; everything else is recreated from the manifest. A good location for the manifest
+     * is next to the workspace. The manifest only records what this class parses, so it's ignored by subclasses
+     * that override importDecision(File).
+     *
+     * @param manifest      a File, or null to import every decision file
+     */
+    public void setManifest(File manifest) {
+        this.manifest = manifest;
+    }
+
+    /**
+     * Sets the listener that is notified as each decision file is parsed (the default is null, which reports nothing).
+     * Decision files that are recreated from the manifest aren't reported. With an executor, the listener is called
+     * from multiple threads.
+     *
+     * @param importListener    an ImportListener instance (e.g. an ImportMetrics), or null
+     */
+    public void setImportListener(ImportListener importListener) {
+        this.importListener = importListener;
     }
 
     /**
@@ -82,66 +137,268 @@ public class AdrToolsDecisionImporter implements DocumentationImporter {
      */
     @Override
     public void importDocumentation(Documentable documentable, File path) {
+        importDocumentation(documentable, path, null);
+    }
+
+    /**
+     * As importDocumentation(Documentable, File), using (and updating) the specified in-memory manifest, if there is
+     * one, rather than the manifest file, so that only the decision files that have changed since the previous import
+     * are parsed.
+     */
+    void importDocumentation(Documentable documentable, File path, AdrManifest inMemoryManifest) {
         if (documentable == null) {
             throw new IllegalArgumentException("A workspace, software system, container, or component must be specified.");
         }
 
         if (path == null) {
             throw new IllegalArgumentException("A path must be specified.");
-        } else if (!path.exists()) {
+        }
+
+        BasicFileAttributes attributes = DirectoryScanner.readAttributes(path.toPath());
+        if (attributes == null) {
             throw new IllegalArgumentException(path.getAbsolutePath() + " does not exist.");
         }
 
-        if (!path.isDirectory()) {
+        if (!attributes.isDirectory()) {
             throw new IllegalArgumentException(path.getAbsolutePath() + " is not a directory.");
         }
 
         try {
             Map<String, Decision> decisionsById = new LinkedHashMap<>();
 
-            File[] markdownFiles = path.listFiles((dir, name) -> name.endsWith(".md"));
-            if (markdownFiles != null) {
+            List<DirectoryScanner.Entry> entries = DirectoryScanner.list(path.toPath(), file -> file.getFileName().toString().endsWith(".md"));
+            if (!entries.isEmpty()) {
+                File[] markdownFiles = new File[entries.size()];
+                long[] sizes = new long[entries.size()];
+                for (int i = 0; i < markdownFiles.length; i++) {
+                    markdownFiles[i] = entries.get(i).toFile();
+                    sizes[i] = entries.get(i).getSize();
+                }
+
                 Map<String,Decision> decisionsByFilename = new HashMap<>();
+                boolean incremental = (manifest != null || inMemoryManifest != null) && !isOverridden("importDecision", File.class);
+                List<ImportedDecision> decisions = incremental ? importDecisionsIncrementally(path, entries, inMemoryManifest) : importDecisions(markdownFiles, sizes);
 
-                for (File file : markdownFiles) {
-                    Decision decision = importDecision(file);
+                for (int i = 0; i < markdownFiles.length; i++) {
+                    Decision decision = decisions.get(i).decision;
                     documentable.getDocumentation().addDecision(decision);
 
                     decisionsById.put(decision.getId(), decision);
-                    decisionsByFilename.put(file.getName(), decision);
+                    decisionsByFilename.put(markdownFiles[i].getName(), decision);
                 }
 
-                for (Decision decision : decisionsById.values()) {
-                    extractLinks(decision, decisionsByFilename);
+                JfrEvents.resolveLinks(path.getPath(), decisionsById.size(), () -> resolveLinks(decisions, decisionsByFilename));
+            }
+        } catch (Exception e) {
+            throw new DocumentationImportException(e);
+        }
+    }
+
+    private List<ImportedDecision> importDecisions(File[] files, long[] sizes) throws Exception {
+        List<ImportedDecision> decisions = new ArrayList<>(files.length);
+        boolean importDecisionOverridden = isOverridden("importDecision", File.class);
 
-                    // and replace file references, for example "0008-some-decision.md" -> "#8"
-                    String content = decision.getContent();
-                    for (String filename : decisionsByFilename.keySet()) {
-                        content = content.replace(filename, calculateUrl(decisionsByFilename.get(filename)));
+        if (executor == null) {
+            for (int i = 0; i < files.length; i++) {
+                decisions.add(importDecision(files[i], sizes[i], importDecisionOverridden));
+            }
+        } else {
+            List<CompletableFuture<ImportedDecision>> futures = new ArrayList<>(files.length);
+            for (int i = 0; i < files.length; i++) {
+                File file = files[i];
+                long size = sizes[i];
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return importDecision(file, size, importDecisionOverridden);
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
                     }
-                    decision.setContent(content);
+                }, executor));
+            }
+
+            // join in file order, so that the result (and the first reported failure) matches the sequential path
+            for (CompletableFuture<ImportedDecision> future : futures) {
+                try {
+                    decisions.add(future.join());
+                } catch (CompletionException e) {
+                    if (e.getCause() instanceof Exception) {
+                        throw (Exception)e.getCause();
+                    }
+
+                    throw e;
                 }
             }
+        }
+
+        return decisions;
+    }
+
+    private List<ImportedDecision> importDecisionsIncrementally(File directory, List<DirectoryScanner.Entry> entries, AdrManifest inMemoryManifest) throws Exception {
+        // a change to the date settings means that previously parsed dates can't be reused
+        String settings = getClass().getName() + "|" + dateSettings.pattern + "|" + dateSettings.timeZone.getID();
+        AdrManifest previousManifest;
+        if (inMemoryManifest != null) {
+            previousManifest = inMemoryManifest;
+            previousManifest.useSettings(settings);
+        } else {
+            previousManifest = AdrManifest.read(manifest, settings);
+        }
+        List<AdrManifest.Entry> currentEntries = new ArrayList<>();
+
+        File[] files = new File[entries.size()];
+        String[] keys = new String[files.length];
+        ImportedDecision[] decisions = new ImportedDecision[files.length];
+        long[] sizes = new long[files.length];
+        long[] lastModifiedTimes = new long[files.length];
+        List<Integer> changedFiles = new ArrayList<>();
+
+        for (int i = 0; i < files.length; i++) {
+            // the attributes were read when the directory was listed
+            DirectoryScanner.Entry directoryEntry = entries.get(i);
+            File file = directoryEntry.toFile();
+            files[i] = file;
+            sizes[i] = directoryEntry.getSize();
+            lastModifiedTimes[i] = directoryEntry.getLastModified();
+            keys[i] = AdrManifest.key(file);
+
+            AdrManifest.Entry entry = previousManifest.get(keys[i]);
+            if (entry != null && entry.matches(sizes[i], lastModifiedTimes[i])) {
+                // unchanged, so there's no need to read the file
+                decisions[i] = new ImportedDecision(entry.toDecision(), entry.getLinkLines());
+                currentEntries.add(entry);
+                continue;
+            }
+
+            if (entry != null) {
+                // the file has been touched (e.g. by a fresh checkout), but its content may not have changed
+                String hash = AdrManifest.hash(readContent(file));
+                if (hash.equals(entry.getHash())) {
+                    decisions[i] = new ImportedDecision(entry.toDecision(), entry.getLinkLines());
+                    currentEntries.add(entry.withAttributes(sizes[i], lastModifiedTimes[i]));
+                    continue;
+                }
+            }
+
+            changedFiles.add(i);
+        }
+
+        File[] filesToImport = new File[changedFiles.size()];
+        long[] sizesToImport = new long[changedFiles.size()];
+        for (int i = 0; i < filesToImport.length; i++) {
+            filesToImport[i] = files[changedFiles.get(i)];
+            sizesToImport[i] = sizes[changedFiles.get(i)];
+        }
+
+        List<ImportedDecision> importedDecisions = importDecisions(filesToImport, sizesToImport);
+        for (int i = 0; i < filesToImport.length; i++) {
+            int index = changedFiles.get(i);
+            decisions[index] = importedDecisions.get(i);
+            Decision decision = decisions[index].decision;
+
+            // hash the content that was parsed (before file references are rewritten), rather than reading the file again
+            String hash = AdrManifest.hash(decision.getContent());
+            currentEntries.add(new AdrManifest.Entry(keys[index], sizes[index], lastModifiedTimes[index], hash, decision, decisions[index].linkLines));
+        }
+
+        // merge, so that the entries for other directories sharing the manifest are kept
+        previousManifest.removeDirectory(directory.toPath().toAbsolutePath().normalize());
+        for (AdrManifest.Entry entry : currentEntries) {
+            previousManifest.put(entry);
+        }
+        if (manifest != null) {
+            previousManifest.write(manifest, settings);
+        }
+
+        return Arrays.asList(decisions);
+    }
+
+    private void resolveLinks(List<ImportedDecision> decisions, Map<String,Decision> decisionsByFilename) throws Exception {
+        Map<String,String> urlsByFilename = new HashMap<>();
+        for (String filename : decisionsByFilename.keySet()) {
+            urlsByFilename.put(filename, calculateUrl(decisionsByFilename.get(filename)));
+        }
+        MultiStringReplacer fileReferenceReplacer = new MultiStringReplacer(urlsByFilename);
+
+        boolean extractLinksOverridden = isOverridden("extractLinks", Decision.class, Map.class);
+        for (ImportedDecision importedDecision : decisions) {
+            Decision decision = importedDecision.decision;
+            if (importedDecision.linkLines == null || extractLinksOverridden) {
+                extractLinks(decision, decisionsByFilename);
+            } else {
+                // the link lines were captured when the header was parsed
+                addLinks(decision, importedDecision.linkLines, decisionsByFilename);
+            }
+
+            // and replace file references, for example "0008-some-decision.md" -> "#8"
+            decision.setContent(fileReferenceReplacer.replace(decision.getContent()));
+        }
+    }
+
+    private ImportedDecision importDecision(File file, long size, boolean importDecisionOverridden) throws Exception {
+        FileImport fileImport = FileImport.start(importListener, this, file.getPath());
+        try {
+            // an overridden importDecision(File) is always called, even though its link lines then have to be found again
+            ImportedDecision importedDecision = importDecisionOverridden ? new ImportedDecision(importDecision(file), null) : parseDecision(file);
+            Decision decision = importedDecision.decision;
+            fileImport.read(size);
+            fileImport.produced(decision.getContent() != null ? decision.getContent().length() : 0);
+            fileImport.finished();
+
+            return importedDecision;
         } catch (Exception e) {
-            throw new DocumentationImportException(e);
+            fileImport.failed(e);
+            throw e;
         }
     }
 
     protected Decision importDecision(File file) throws Exception {
+        return parseDecision(file).decision;
+    }
+
+    private ImportedDecision parseDecision(File file) throws Exception {
         String id = extractIntegerIDFromFileName(file);
         Decision decision = new Decision(id);
 
-        String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
-        content = content.replace("\r", "");
+        String content = readContent(file);
         decision.setContent(content);
 
-        String[] lines = content.split("\\n");
-        decision.setTitle(extractTitle(lines));
-        decision.setDate(extractDate(lines));
-        decision.setStatus(extractStatus(lines));
-        decision.setFormat(Format.Markdown);
+        String[] linkLines = JfrEvents.parse(file.getPath(), content.length(), () -> {
+            // the title, date and status (plus any links) all appear before the ## Context heading
+            String[] lines = readHeaderLines(content);
+            decision.setTitle(extractTitle(lines));
+            decision.setDate(extractDate(lines));
+            decision.setStatus(extractStatus(lines));
+            decision.setFormat(Format.Markdown);
+
+            return findLinkLines(lines);
+        });
+
+        return new ImportedDecision(decision, linkLines);
+    }
+
+    private static String readContent(File file) throws IOException {
+        return new String(JfrEvents.readFile(file.toPath()), StandardCharsets.UTF_8).replace("\r", "");
+    }
+
+    private static String[] readHeaderLines(String content) {
+        // a single forward pass that stops at the ## Context heading, rather than splitting the whole file into lines
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+        while (start <= content.length()) {
+            if (!lines.isEmpty() && content.startsWith(CONTEXT_HEADING, start)) {
+                break;
+            }
+
+            int end = content.indexOf('\n', start);
+            if (end == -1) {
+                end = content.length();
+            }
+
+            lines.add(content.substring(start, end));
+            start = end + 1;
+        }
 
-        return decision;
+        return lines.toArray(new String[0]);
     }
 
     protected String extractIntegerIDFromFileName(File file) {
@@ -159,20 +416,77 @@ public class AdrToolsDecisionImporter implements DocumentationImporter {
     protected Date extractDate(String[] lines) throws Exception {
         // the date is on a line of its own, in the format:
         // Date: {DECISION_DATE:YYYY-MM-DD}
-        SimpleDateFormat sdf = new SimpleDateFormat(dateFormat);
-        sdf.setTimeZone(timeZone);
-
         for (String line : lines) {
             if (line.startsWith(DATE_PREFIX)) {
-                String dateAsString = line.substring(DATE_PREFIX.length());
+                String dateAsString = line.substring(DATE_PREFIX.length()).trim();
 
-                return sdf.parse(dateAsString);
+                return parseDate(dateAsString);
             }
         }
 
         return new Date();
     }
 
+    private Date parseDate(String dateAsString) throws ParseException {
+        // the settings are immutable, so this is safe to call from multiple threads
+        DateSettings settings = this.dateSettings;
+
+        if (settings.zoneId != null && DEFAULT_DATE_FORMAT.equals(settings.pattern)) {
+            LocalDate date = parseIsoDate(dateAsString);
+            if (date != null) {
+                return Date.from(date.atStartOfDay(settings.zoneId).toInstant());
+            }
+        }
+
+        // anything else (including custom formats) is parsed by a SimpleDateFormat, cached per thread for the current settings
+        CachedDateFormat cached = cachedDateFormat.get();
+        if (cached == null || cached.settings != settings) {
+            SimpleDateFormat sdf = new SimpleDateFormat(settings.pattern);
+            sdf.setTimeZone((TimeZone)settings.timeZone.clone());
+            cached = new CachedDateFormat(settings, sdf);
+            cachedDateFormat.set(cached);
+        }
+
+        return cached.format.parse(dateAsString);
+    }
+
+    private static LocalDate parseIsoDate(String s) {
+        // fast path for the default yyyy-MM-dd format, returning null if SimpleDateFormat needs to be used instead
+        if (s.length() < 10 || s.charAt(4) != '-' || s.charAt(7) != '-' || (s.length() > 10 && isDigit(s.charAt(10)))) {
+            return null;
+        }
+
+        int year = 0;
+        int month = 0;
+        int day = 0;
+        for (int i = 0; i < 10; i++) {
+            char c = s.charAt(i);
+            if (i == 4 || i == 7) {
+                continue;
+            } else if (!isDigit(c)) {
+                return null;
+            }
+
+            if (i < 4) {
+                year = year * 10 + (c - '0');
+            } else if (i < 7) {
+                month = month * 10 + (c - '0');
+            } else {
+                day = day * 10 + (c - '0');
+            }
+        }
+
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
     protected String extractStatus(String[] lines) {
         // the status is on a line of its own, after the ## Status header:
         boolean inStatusSection = false;
@@ -198,34 +512,58 @@ public class AdrToolsDecisionImporter implements DocumentationImporter {
     }
 
     protected void extractLinks(Decision decision, Map<String,Decision> decisionsByFilename) {
+        addLinks(decision, findLinkLines(readHeaderLines(decision.getContent())), decisionsByFilename);
+    }
+
+    private static String[] findLinkLines(String[] lines) {
         // adr-tools allows users to create arbitrary links between ADRs, which reside inside the ## Status section
-        String[] lines = decision.getContent().split("\\n");
+        List<String> linkLines = new ArrayList<>();
         boolean inStatusSection = false;
         for (String line : lines) {
             if (!inStatusSection) {
                 if (line.startsWith(STATUS_HEADING)) {
                     inStatusSection = true;
                 }
-            } else {
-                if (line.startsWith(CONTEXT_HEADING)) {
-                    // we're done
-                    return;
-                } else if (!StringUtils.isNullOrEmpty(line)) {
-                    Matcher matcher = LINK_REGEX.matcher(line);
-                    if (matcher.find()) {
-                        String linkDescription = matcher.group(1);
-                        String markdownFile = matcher.group(2);
-
-                        Decision targetDecision = decisionsByFilename.get(markdownFile);
-                        if (targetDecision != null) {
-                            decision.addLink(targetDecision, linkDescription);
-                        }
-                    }
+            } else if (!StringUtils.isNullOrEmpty(line) && line.contains("](")) {
+                linkLines.add(line);
+            }
+        }
+
+        return linkLines.toArray(new String[0]);
+    }
+
+    private static void addLinks(Decision decision, String[] linkLines, Map<String,Decision> decisionsByFilename) {
+        for (String line : linkLines) {
+            Matcher matcher = LINK_REGEX.matcher(line);
+            if (matcher.find()) {
+                String linkDescription = matcher.group(1);
+                String markdownFile = matcher.group(2);
+
+                Decision targetDecision = decisionsByFilename.get(markdownFile);
+                if (targetDecision != null) {
+                    decision.addLink(targetDecision, linkDescription);
                 }
             }
         }
     }
 
+    /**
+     * Determines whether a subclass overrides one of the protected methods, in which case it must be called
+     * (rather than a faster private equivalent).
+     */
+    private boolean isOverridden(String name, Class<?>... parameterTypes) {
+        for (Class<?> type = getClass(); type != AdrToolsDecisionImporter.class; type = type.getSuperclass()) {
+            try {
+                type.getDeclaredMethod(name, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // keep looking
+            }
+        }
+
+        return false;
+    }
+
     protected String calculateUrl(Decision decision) throws Exception {
         return "#" + urlEncode(decision.getId());
     }
@@ -234,4 +572,54 @@ public class AdrToolsDecisionImporter implements DocumentationImporter {
         return URLEncoder.encode(value, StandardCharsets.UTF_8.toString()).replaceAll("\\+", "%20");
     }
 
+    /**
+     * A decision, along with the link lines found in its ## Status section when the header was parsed
+     * (null if they weren't captured, and need to be found again).
+     */
+    private static final class ImportedDecision {
+
+        private final Decision decision;
+        private final String[] linkLines;
+
+        private ImportedDecision(Decision decision, String[] linkLines) {
+            this.decision = decision;
+            this.linkLines = linkLines;
+        }
+
+    }
+
+    private static final class DateSettings {
+
+        private final String pattern;
+        private final TimeZone timeZone;
+        private final ZoneId zoneId; // null if the time zone (e.g. a custom SimpleTimeZone) has no ZoneId equivalent
+
+        private DateSettings(String pattern, TimeZone timeZone) {
+            this.pattern = pattern;
+            this.timeZone = timeZone;
+            this.zoneId = toZoneId(timeZone);
+        }
+
+        private static ZoneId toZoneId(TimeZone timeZone) {
+            try {
+                return timeZone.toZoneId();
+            } catch (DateTimeException e) {
+                return null;
+            }
+        }
+
+    }
+
+    private static final class CachedDateFormat {
+
+        private final DateSettings settings;
+        private final SimpleDateFormat format;
+
+        private CachedDateFormat(DateSettings settings, SimpleDateFormat format) {
+            this.settings = settings;
+            this.format = format;
+        }
+
+    }
+
 }
\ No newline at end of file
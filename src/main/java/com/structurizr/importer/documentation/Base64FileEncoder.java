@@ -0,0 +1,100 @@
+package com.structurizr.importer.documentation;
+
+import com.structurizr.importer.jfr.JfrEvents;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+
+/**
+ * Base64 encodes a file by streaming it from a FileChannel through Base64.getEncoder().wrap(...) into
+ * a buffer of exactly the encoded size, so the raw bytes are never held on the heap. That buffer is the only
+ * other copy of the encoded content, and only lives until the String is created (a String can't adopt an array).
+ * Files aren't memory-mapped, since a mapping isn't released until it's garbage collected, which locks the file on Windows.
+ */
+final class Base64FileEncoder {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final long MAXIMUM_SIZE = (Integer.MAX_VALUE - 8) / 4 * 3;
+
+    private Base64FileEncoder() {
+    }
+
+    static String encode(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > MAXIMUM_SIZE) {
+                throw new IOException(file + " is too large to be base64 encoded.");
+            }
+
+            return JfrEvents.base64(file.toString(), size, () -> encode(channel, size));
+        }
+    }
+
+    private static String encode(FileChannel channel, long size) throws IOException {
+        FixedSizeOutputStream buffer = new FixedSizeOutputStream((int)(4 * ((size + 2) / 3)));
+        try (OutputStream out = Base64.getEncoder().wrap(buffer)) {
+            ByteBuffer chunk = ByteBuffer.allocate((int)Math.min(CHUNK_SIZE, Math.max(size, 1)));
+            long remaining = size;
+            while (remaining > 0) {
+                chunk.clear();
+                chunk.limit((int)Math.min(chunk.capacity(), remaining));
+                int length = channel.read(chunk);
+                if (length < 0) {
+                    // the file was truncated while being read
+                    break;
+                }
+
+                out.write(chunk.array(), 0, length);
+                remaining -= length;
+            }
+        }
+
+        return buffer.toString();
+    }
+
+    /**
+     * An output stream that writes into a single, pre-sized array, so that there's no copying as it grows.
+     */
+    private static final class FixedSizeOutputStream extends OutputStream {
+
+        private final byte[] bytes;
+        private int count;
+
+        private FixedSizeOutputStream(int size) {
+            this.bytes = new byte[size];
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == bytes.length) {
+                throw new IOException("The file changed size while being read.");
+            }
+
+            bytes[count++] = (byte)b;
+        }
+
+        @Override
+        public void write(byte[] b, int offset, int length) throws IOException {
+            if (length > bytes.length - count) {
+                throw new IOException("The file changed size while being read.");
+            }
+
+            System.arraycopy(b, offset, bytes, count, length);
+            count += length;
+        }
+
+        @Override
+        public String toString() {
+            // base64 is ASCII, so this is a straight copy into a compact string
+            return new String(bytes, 0, count, StandardCharsets.ISO_8859_1);
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -3,11 +3,15 @@ package com.structurizr.importer.documentation;
 import com.structurizr.documentation.Documentable;
 import com.structurizr.documentation.Format;
 import com.structurizr.documentation.Section;
+import com.structurizr.importer.FileImport;
+import com.structurizr.importer.ImportListener;
+import com.structurizr.importer.jfr.JfrEvents;
 
 import java.io.File;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.util.Arrays;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
 
 /**
  * This implementation scans a given directory and automatically imports all Markdown or AsciiDoc
@@ -17,6 +21,18 @@ import java.util.Arrays;
  */
 public class DefaultDocumentationImporter implements DocumentationImporter {
 
+    private ImportListener importListener;
+
+    /**
+     * Sets the listener that is notified as each file is imported (the default is null, which reports nothing).
+     * When files are read concurrently (see RecursiveDefaultDocumentationImporter), it is called from multiple threads.
+     *
+     * @param importListener    an ImportListener instance (e.g. an ImportMetrics), or null
+     */
+    public void setImportListener(ImportListener importListener) {
+        this.importListener = importListener;
+    }
+
     /**
      * Imports Markdown/AsciiDoc files from the specified path, each in its own section.
      *
@@ -31,51 +47,90 @@ public class DefaultDocumentationImporter implements DocumentationImporter {
 
         if (path == null) {
             throw new IllegalArgumentException("A path must be specified.");
-        } else if (!path.exists()) {
+        }
+
+        BasicFileAttributes attributes = DirectoryScanner.readAttributes(path.toPath());
+        if (attributes == null) {
             throw new IllegalArgumentException(path.getAbsolutePath() + " does not exist.");
         }
 
         try {
-            if (path.isDirectory()) {
-                File[] filesInDirectory = path.listFiles();
-                if (filesInDirectory != null) {
-                    Arrays.sort(filesInDirectory);
-
-                    for (File file : filesInDirectory) {
-                        if (!file.isDirectory() && !file.getName().startsWith(".")) {
-                            importFile(documentable, file);
-                        }
+            // section filenames are relative to this (canonicalised once) root
+            Path root = path.getCanonicalFile().toPath();
+
+            if (attributes.isDirectory()) {
+                for (DirectoryScanner.Entry entry : DirectoryScanner.list(root)) {
+                    if (!entry.isDirectory() && !entry.isHidden()) {
+                        importFile(documentable, root, entry.toFile());
                     }
                 }
             } else {
-                importFile(documentable, path);
-            }
-
-            // now trim the filenames
-            for (Section section : documentable.getDocumentation().getSections()) {
-                String filename = section.getFilename();
-
-                filename = filename.replace(path.getCanonicalPath(), "");
-                if (filename.startsWith("/")) {
-                    filename = filename.substring(1);
-                }
-
-                section.setFilename(filename);
+                importFile(documentable, root, root.toFile());
             }
         } catch (Exception e) {
             throw new DocumentationImportException(e);
         }
     }
 
+    /**
+     * Imports a single file, with a section filename relative to the file's directory.
+     *
+     * @deprecated  this is no longer called by importDocumentation; override importFile(Documentable, Path, File) instead
+     */
+    @Deprecated
     protected void importFile(Documentable documentable, File file) throws Exception {
-        if (FormatFinder.isMarkdownOrAsciiDoc(file)) {
-            Format format = FormatFinder.findFormat(file);
-            String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        File canonicalFile = file.getCanonicalFile();
+        importFile(documentable, canonicalFile.getParentFile().toPath(), canonicalFile);
+    }
 
-            Section section = new Section(format, content);
-            section.setFilename(file.getCanonicalPath());
+    protected void importFile(Documentable documentable, Path root, File file) throws Exception {
+        Section section = readSection(root, file);
+        if (section != null) {
             documentable.getDocumentation().addSection(section);
         }
     }
 
+    /**
+     * Reads a section from the specified file, with a filename relative to the file's directory.
+     *
+     * @deprecated  this is no longer called by importDocumentation; override readSection(Path, File) instead
+     */
+    @Deprecated
+    protected Section readSection(File file) throws Exception {
+        File canonicalFile = file.getCanonicalFile();
+        return readSection(canonicalFile.getParentFile().toPath(), canonicalFile);
+    }
+
+    /**
+     * Reads a section from the specified file, without adding it to any documentation.
+     *
+     * @param root      the canonical path being imported, which the section filename is relative to
+     * @param file      a Markdown or AsciiDoc file, within the root
+     * @return  a Section, or null if the file isn't Markdown or AsciiDoc (including files without an extension)
+     * @throws Exception    if the file can't be read
+     */
+    protected Section readSection(Path root, File file) throws Exception {
+        Optional<Format> format = FormatFinder.classify(file);
+        if (format.isPresent()) {
+            FileImport fileImport = FileImport.start(importListener, this, file.getPath());
+            try {
+                byte[] bytes = JfrEvents.readFile(file.toPath());
+                fileImport.read(bytes.length);
+                String content = new String(bytes, StandardCharsets.UTF_8);
+
+                Section section = new Section(format.get(), content);
+                section.setFilename(root.relativize(file.toPath()).toString().replace(File.separatorChar, '/'));
+                fileImport.produced(content.length());
+                fileImport.finished();
+
+                return section;
+            } catch (Exception e) {
+                fileImport.failed(e);
+                throw e;
+            }
+        }
+
+        return null;
+    }
+
 }
\ No newline at end of file
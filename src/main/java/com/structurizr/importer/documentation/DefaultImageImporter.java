@@ -2,13 +2,24 @@ package com.structurizr.importer.documentation;
 
 import com.structurizr.documentation.Documentable;
 import com.structurizr.documentation.Image;
+import com.structurizr.importer.FileImport;
+import com.structurizr.importer.ImportListener;
+import com.structurizr.importer.jfr.JfrEvents;
 import com.structurizr.util.ImageUtils;
 import com.structurizr.util.StringUtils;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.util.Base64;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * This implementation scans a given directory and automatically imports all Markdown or AsciiDoc
@@ -19,6 +30,126 @@ import java.util.Base64;
  */
 public class DefaultImageImporter implements DocumentationImporter {
 
+    private static final long DEFAULT_MAX_BYTES_IN_FLIGHT = 256 * 1024 * 1024;
+
+    private boolean passthrough = false;
+    private int parallelism = 1;
+    private long maxBytesInFlight = DEFAULT_MAX_BYTES_IN_FLIGHT;
+    private boolean deduplicate = false;
+    private List<List<String>> duplicateImageGroups = Collections.emptyList();
+    private boolean optimize = false;
+    private int maximumWidth = 0;
+    private int maximumHeight = 0;
+    private Map<String,Long> bytesSavedByImage = Collections.emptyMap();
+    private ImportListener importListener;
+
+    /**
+     * Sets whether png/jpg/jpeg/gif images are imported as-is (the default is false, which decodes and
+     * re-encodes them). In passthrough mode, the original bytes of each file are base64 encoded unchanged,
+     * and the content type is detected from the content of the file rather than its name.
+     *
+     * @param passthrough       true to import the original bytes, false otherwise
+     */
+    public void setPassthrough(boolean passthrough) {
+        this.passthrough = passthrough;
+    }
+
+    /**
+     * Sets the number of images that are read and encoded concurrently (the default is 1, which imports
+     * images one at a time). Images are added to the documentation in the same order either way.
+     *
+     * @param parallelism       the number of threads to use
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be greater than zero.");
+        }
+
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the maximum total size of the image files being read and encoded concurrently, which bounds
+     * the memory used when the parallelism is greater than 1 (the default is 256MB). A file larger than
+     * this is imported on its own.
+     *
+     * @param maxBytesInFlight      a number of bytes
+     */
+    public void setMaxBytesInFlight(long maxBytesInFlight) {
+        if (maxBytesInFlight < 1) {
+            throw new IllegalArgumentException("The maximum number of bytes in flight must be greater than zero.");
+        }
+
+        this.maxBytesInFlight = maxBytesInFlight;
+    }
+
+    /**
+     * Sets whether images with identical content are encoded only once (the default is false). When enabled,
+     * the bytes of each image are hashed, and images with the same content share a single encoded String.
+     *
+     * @param deduplicate       true to deduplicate images by content, false otherwise
+     */
+    public void setDeduplicate(boolean deduplicate) {
+        this.deduplicate = deduplicate;
+    }
+
+    /**
+     * Gets the groups of images with identical content found by the most recent import, when deduplication
+     * is enabled. Each group contains two or more image names, in the order they were imported.
+     *
+     * @return  a List of image name groups (empty if there were no duplicates)
+     */
+    public List<List<String>> getDuplicateImageGroups() {
+        return duplicateImageGroups;
+    }
+
+    /**
+     * Sets whether png/jpg/jpeg images are optimized (the default is false). When enabled, images larger than
+     * the maximum dimensions are downsampled, and PNGs are recompressed losslessly. An optimized image is only
+     * used when it's smaller than the original file, and otherwise the original bytes are imported unchanged.
+     *
+     * @param optimize      true to optimize images, false otherwise
+     */
+    public void setOptimize(boolean optimize) {
+        this.optimize = optimize;
+    }
+
+    /**
+     * Sets the maximum dimensions of optimized images; larger images are downsampled, preserving their
+     * aspect ratio (the default is 0 for both, which means no limit).
+     *
+     * @param maximumWidth      the maximum width in pixels, or 0 for no limit
+     * @param maximumHeight     the maximum height in pixels, or 0 for no limit
+     */
+    public void setMaximumDimensions(int maximumWidth, int maximumHeight) {
+        if (maximumWidth < 0 || maximumHeight < 0) {
+            throw new IllegalArgumentException("The maximum width and height must be zero (no limit) or greater.");
+        }
+
+        this.maximumWidth = maximumWidth;
+        this.maximumHeight = maximumHeight;
+    }
+
+    /**
+     * Gets the number of bytes saved per image by the most recent import, when optimization is enabled.
+     *
+     * @return  a Map of image name to bytes saved, in the order the images were imported (only images that were made smaller are included)
+     */
+    public Map<String,Long> getBytesSavedByImage() {
+        return bytesSavedByImage;
+    }
+
+    /**
+     * Sets the listener that is notified as each image is imported (the default is null, which reports nothing).
+     * The encode duration covers optimizing and base64 encoding. With a parallelism greater than one,
+     * the listener is called from multiple threads.
+     *
+     * @param importListener    an ImportListener instance (e.g. an ImportMetrics), or null
+     */
+    public void setImportListener(ImportListener importListener) {
+        this.importListener = importListener;
+    }
+
     /**
      * Imports one or more png/jpg/jpeg/gif images from the specified path.
      *
@@ -26,49 +157,148 @@ public class DefaultImageImporter implements DocumentationImporter {
      * @param path              the path to import images from
      */
     public void importDocumentation(Documentable documentable, File path) {
+        importDocumentation(documentable, path, createImageContents());
+    }
+
+    /**
+     * Creates the record of encoded image content used to deduplicate images, or returns null if deduplication
+     * isn't enabled.
+     */
+    ImageContents createImageContents() {
+        return deduplicate ? new ImageContents() : null;
+    }
+
+    /**
+     * As importDocumentation(Documentable, File), deduplicating images against the specified contents
+     * (which may already contain images from a previous import).
+     */
+    void importDocumentation(Documentable documentable, File path, ImageContents contents) {
         if (documentable == null) {
             throw new IllegalArgumentException("A workspace or software system must be specified.");
         }
 
         if (path == null) {
             throw new IllegalArgumentException("A path must be specified.");
-        } else if (!path.exists()) {
+        }
+
+        BasicFileAttributes attributes = DirectoryScanner.readAttributes(path.toPath());
+        if (attributes == null) {
             throw new IllegalArgumentException(path.getAbsolutePath() + " does not exist.");
         }
 
         try {
-            if (path.isDirectory()) {
-                importImages(documentable, "", path);
+            if (attributes.isDirectory()) {
+                List<ImageFile> images = new ArrayList<>();
+                findImages("", path.toPath(), images);
+
+                Map<String,Long> bytesSaved = new ConcurrentHashMap<>();
+                importImages(documentable, images, contents, bytesSaved);
+                duplicateImageGroups = contents != null ? contents.getDuplicateGroups(images) : Collections.emptyList();
+
+                Map<String,Long> bytesSavedByImage = new LinkedHashMap<>();
+                for (ImageFile image : images) {
+                    Long saving = bytesSaved.get(image.getName());
+                    if (saving != null) {
+                        bytesSavedByImage.put(image.getName(), saving);
+                    }
+                }
+                this.bytesSavedByImage = Collections.unmodifiableMap(bytesSavedByImage);
             } else {
-                importImage(documentable, "", path);
+                Map<String,Long> bytesSaved = new ConcurrentHashMap<>();
+                importImage(documentable, "", path, bytesSaved);
+                duplicateImageGroups = Collections.emptyList();
+                bytesSavedByImage = Collections.unmodifiableMap(new LinkedHashMap<>(bytesSaved));
             }
         } catch (Exception e) {
             throw new DocumentationImportException(e.getMessage(), e);
         }
     }
 
-    private void importImages(Documentable documentable, String root, File path) throws IOException {
-        File[] files = path.listFiles();
-        if (files != null) {
-            for (File file : files) {
-                String name = file.getName().toLowerCase();
-                if (file.isDirectory() && !file.isHidden()) {
-                    if (StringUtils.isNullOrEmpty(root)) {
-                        importImages(documentable, file.getName(), file);
-                    } else {
-                        importImages(documentable, root + "/" + file.getName(), file);
-                    }
+    private void findImages(String root, Path path, List<ImageFile> images) throws IOException {
+        for (DirectoryScanner.Entry entry : DirectoryScanner.list(path)) {
+            String name = entry.getName().toLowerCase();
+            if (entry.isDirectory()) {
+                if (entry.isHidden()) {
+                    continue;
+                }
+
+                if (StringUtils.isNullOrEmpty(root)) {
+                    findImages(entry.getName(), entry.getPath(), images);
                 } else {
-                    if (name.endsWith(".png") || name.endsWith(".jpg") || name.endsWith(".jpeg") || name.endsWith(".gif") || name.endsWith(".svg")) {
-                        importImage(documentable, root, file);
-                    }
+                    findImages(root + "/" + entry.getName(), entry.getPath(), images);
+                }
+            } else {
+                if (name.endsWith(".png") || name.endsWith(".jpg") || name.endsWith(".jpeg") || name.endsWith(".gif") || name.endsWith(".svg")) {
+                    images.add(new ImageFile(root, entry.toFile(), entry.getSize()));
                 }
             }
         }
     }
 
-    private void importImage(Documentable documentable, String path, File file) throws IOException {
-        String contentType = ImageUtils.getContentType(file);
+    private void importImages(Documentable documentable, List<ImageFile> images, ImageContents contents, Map<String,Long> bytesSaved) throws Exception {
+        if (parallelism == 1 || images.size() < 2) {
+            for (ImageFile image : images) {
+                documentable.getDocumentation().addImage(readImage(image.path, image.file, image.size, contents, bytesSaved));
+            }
+
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, images.size()));
+        Deque<Future<Image>> futures = new ArrayDeque<>();
+        Deque<Long> budgets = new ArrayDeque<>();
+        long bytesInFlight = 0;
+
+        try {
+            for (ImageFile image : images) {
+                // a file larger than the whole budget is still imported, but on its own
+                long budget = Math.min(image.size, maxBytesInFlight);
+
+                // images are added in traversal order, so wait for the oldest image until there's room for this one
+                while (!futures.isEmpty() && bytesInFlight + budget > maxBytesInFlight) {
+                    documentable.getDocumentation().addImage(getImage(futures.remove()));
+                    bytesInFlight -= budgets.remove();
+                }
+
+                futures.add(executor.submit(() -> readImage(image.path, image.file, image.size, contents, bytesSaved)));
+                budgets.add(budget);
+                bytesInFlight += budget;
+            }
+
+            while (!futures.isEmpty()) {
+                documentable.getDocumentation().addImage(getImage(futures.remove()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Image getImage(Future<Image> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception)e.getCause();
+            }
+
+            throw e;
+        }
+    }
+
+    private void importImage(Documentable documentable, String path, File file, Map<String,Long> bytesSaved) throws IOException {
+        documentable.getDocumentation().addImage(readImage(path, file, file.length(), null, bytesSaved));
+    }
+
+    /**
+     * Reads a single image, named relative to the directory being imported, without adding it to any documentation.
+     * The image is deduplicated against the specified contents, if there are any.
+     */
+    Image readImage(String path, File file, ImageContents contents) throws IOException {
+        return readImage(path, file, file.length(), contents, new HashMap<>());
+    }
+
+    private Image readImage(String path, File file, long size, ImageContents contents, Map<String,Long> bytesSaved) throws IOException {
+        String contentType;
         String base64Content;
 
         String name;
@@ -78,14 +308,170 @@ public class DefaultImageImporter implements DocumentationImporter {
             name = path + "/" + file.getName();
         }
 
-        if (ImageUtils.CONTENT_TYPE_IMAGE_SVG.equalsIgnoreCase(contentType)) {
-            base64Content = Base64.getEncoder().encodeToString(Files.readAllBytes(file.toPath()));
+        FileImport fileImport = FileImport.start(importListener, this, file.getPath());
+        try {
+            if (passthrough) {
+                contentType = ImageContentType.detect(file.toPath());
+                if (contentType == null) {
+                    throw new IllegalArgumentException(file.getCanonicalPath() + " is not a supported image file.");
+                }
+            } else {
+                contentType = ImageUtils.getContentType(file);
+            }
+
+            fileImport.encodeStarted();
+            if (contents != null) {
+                // the file is read once, and the bytes are both hashed and (for the first copy) encoded
+                byte[] bytes = JfrEvents.readFile(file.toPath());
+                base64Content = contents.get(name, contentType, bytes, () -> encode(name, file, bytes, contentType, bytesSaved));
+            } else {
+                base64Content = encode(name, file, contentType, bytesSaved);
+            }
+            fileImport.encodeFinished();
+
+            fileImport.read(size);
+            fileImport.produced(base64Content.length());
+            fileImport.finished();
+        } catch (IOException | RuntimeException e) {
+            fileImport.failed(e);
+            throw e;
+        }
+
+        return new Image(name, contentType, base64Content);
+    }
+
+    private String encode(String name, File file, String contentType, Map<String,Long> bytesSaved) throws IOException {
+        if (optimize && ImageOptimizer.isSupported(contentType)) {
+            return optimizeAndEncode(name, file, JfrEvents.readFile(file.toPath()), contentType, bytesSaved);
+        } else if (passthrough || ImageUtils.CONTENT_TYPE_IMAGE_SVG.equalsIgnoreCase(contentType)) {
+            return Base64FileEncoder.encode(file.toPath());
+        } else {
+            // this reads, decodes and re-encodes the image, so the event covers all three
+            return JfrEvents.base64(file.getPath(), file.length(), () -> ImageUtils.getImageAsBase64(file));
+        }
+    }
+
+    private String encode(String name, File file, byte[] bytes, String contentType, Map<String,Long> bytesSaved) throws IOException {
+        if (optimize && ImageOptimizer.isSupported(contentType)) {
+            return optimizeAndEncode(name, file, bytes, contentType, bytesSaved);
+        } else if (passthrough || ImageUtils.CONTENT_TYPE_IMAGE_SVG.equalsIgnoreCase(contentType)) {
+            return encode(file, bytes);
         } else {
-            contentType = ImageUtils.getContentType(file);
-            base64Content = ImageUtils.getImageAsBase64(file);
+            // the same decode and re-encode as ImageUtils.getImageAsBase64(File), but from the bytes already read
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+            if (image == null) {
+                throw new IllegalArgumentException(file.getCanonicalPath() + " is not a supported image file.");
+            }
+
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            ImageIO.write(image, contentType.substring(contentType.indexOf('/') + 1), buffer);
+
+            return encode(file, buffer.toByteArray());
+        }
+    }
+
+    private String optimizeAndEncode(String name, File file, byte[] original, String contentType, Map<String,Long> bytesSaved) throws IOException {
+        byte[] optimized = new ImageOptimizer(maximumWidth, maximumHeight).optimize(original, contentType);
+        if (optimized.length < original.length) {
+            bytesSaved.put(name, (long)(original.length - optimized.length));
+        }
+
+        return encode(file, optimized);
+    }
+
+    private static String encode(File file, byte[] bytes) {
+        return JfrEvents.base64(file.getPath(), bytes.length, () -> Base64.getEncoder().encodeToString(bytes));
+    }
+
+    /**
+     * The encoded content of the images imported so far, keyed on a hash of the file content (and the content type),
+     * so that each distinct image is encoded once, even when images are being imported concurrently.
+     */
+    static final class ImageContents {
+
+        private final Map<String,FutureTask<String>> contentsByKey = new ConcurrentHashMap<>();
+        private final Map<String,String> keysByName = new ConcurrentHashMap<>();
+
+        String get(String name, String contentType, byte[] bytes, Callable<String> encoder) throws IOException {
+            String key = contentType + ":" + hash(bytes);
+            keysByName.put(name, key);
+
+            FutureTask<String> task = new FutureTask<>(encoder);
+            FutureTask<String> existingTask = contentsByKey.putIfAbsent(key, task);
+            if (existingTask == null) {
+                existingTask = task;
+                task.run();
+            }
+
+            try {
+                return existingTask.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException)e.getCause();
+                } else if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException)e.getCause();
+                }
+
+                throw new IOException(e.getCause());
+            }
+        }
+
+        /**
+         * Forgets the images that aren't named, along with any content that's no longer shared by any image.
+         */
+        void retain(Set<String> names) {
+            keysByName.keySet().retainAll(names);
+            contentsByKey.keySet().retainAll(new HashSet<>(keysByName.values()));
+        }
+
+        List<List<String>> getDuplicateGroups(List<ImageFile> images) {
+            Map<String,List<String>> namesByKey = new LinkedHashMap<>();
+            for (ImageFile image : images) {
+                String key = keysByName.get(image.getName());
+                if (key != null) {
+                    namesByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(image.getName());
+                }
+            }
+
+            List<List<String>> groups = new ArrayList<>();
+            for (List<String> names : namesByKey.values()) {
+                if (names.size() > 1) {
+                    groups.add(Collections.unmodifiableList(names));
+                }
+            }
+
+            return Collections.unmodifiableList(groups);
+        }
+
+        private static String hash(byte[] bytes) {
+            try {
+                return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(bytes));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+    }
+
+    private static final class ImageFile {
+
+        private final String path;
+        private final File file;
+        private final long size;
+
+        private ImageFile(String path, File file, long size) {
+            this.path = path;
+            this.file = file;
+            this.size = size;
+        }
+
+        private String getName() {
+            return StringUtils.isNullOrEmpty(path) ? file.getName() : path + "/" + file.getName();
         }
 
-        documentable.getDocumentation().addImage(new Image(name, contentType, base64Content));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.structurizr.importer.documentation;
+
+import com.structurizr.importer.jfr.JfrEvents;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.DosFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Lists directories via a DirectoryStream, reading the attributes of each entry exactly once, so that the
+ * importers don't need separate exists()/isDirectory()/isHidden() calls (each a filesystem call) per file.
+ */
+final class DirectoryScanner {
+
+    private static final DirectoryStream.Filter<Path> ALL = path -> true;
+    private static final boolean DEFAULT_FILE_SYSTEM_USES_DOS_ATTRIBUTES = usesDosAttributes(FileSystems.getDefault());
+
+    private DirectoryScanner() {
+    }
+
+    /**
+     * Reads the attributes of the specified path; DosFileAttributes (in the same call) on file systems where
+     * the hidden attribute determines whether a file is hidden (i.e. Windows), so that isHidden() matches File.isHidden().
+     *
+     * @return  the attributes, or null if the path doesn't exist
+     */
+    static BasicFileAttributes readAttributes(Path path) {
+        try {
+            if (usesDosAttributes(path)) {
+                return Files.readAttributes(path, DosFileAttributes.class);
+            }
+
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new DocumentationImportException(e);
+        }
+    }
+
+    private static boolean usesDosAttributes(Path path) {
+        FileSystem fileSystem = path.getFileSystem();
+
+        return fileSystem == FileSystems.getDefault() ? DEFAULT_FILE_SYSTEM_USES_DOS_ATTRIBUTES : usesDosAttributes(fileSystem);
+    }
+
+    private static boolean usesDosAttributes(FileSystem fileSystem) {
+        // Linux supports the "dos" view too (via extended attributes), but there files are hidden by name
+        return fileSystem.supportedFileAttributeViews().contains("dos") && !fileSystem.supportedFileAttributeViews().contains("posix");
+    }
+
+    /**
+     * Lists the entries in the specified directory, sorted by path.
+     */
+    static List<Entry> list(Path directory) throws IOException {
+        return list(directory, ALL);
+    }
+
+    /**
+     * Lists the entries in the specified directory that match the filter (which is applied before any
+     * attributes are read), sorted by path.
+     */
+    static List<Entry> list(Path directory, DirectoryStream.Filter<? super Path> filter) throws IOException {
+        return JfrEvents.scanDirectory(directory.toString(), () -> {
+            List<Entry> entries = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, filter)) {
+                for (Path path : stream) {
+                    BasicFileAttributes attributes = readAttributes(path);
+                    if (attributes != null) {
+                        entries.add(new Entry(path, attributes));
+                    }
+                    // else it's a broken link, or was removed since the directory was listed
+                }
+            }
+
+            entries.sort(Comparator.comparing(Entry::getPath));
+
+            return entries;
+        });
+    }
+
+    static final class Entry {
+
+        private final Path path;
+        private final BasicFileAttributes attributes;
+
+        Entry(Path path, BasicFileAttributes attributes) {
+            this.path = path;
+            this.attributes = attributes;
+        }
+
+        Path getPath() {
+            return path;
+        }
+
+        String getName() {
+            return path.getFileName().toString();
+        }
+
+        File toFile() {
+            return path.toFile();
+        }
+
+        boolean isDirectory() {
+            return attributes.isDirectory();
+        }
+
+        boolean isHidden() {
+            if (attributes instanceof DosFileAttributes) {
+                return ((DosFileAttributes)attributes).isHidden();
+            }
+
+            return getName().startsWith(".");
+        }
+
+        long getSize() {
+            return attributes.size();
+        }
+
+        long getLastModified() {
+            return attributes.lastModifiedTime().toMillis();
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.structurizr.importer.documentation;
+
+import com.structurizr.documentation.Documentable;
+import com.structurizr.documentation.Documentation;
+
+/**
+ * A Documentable with its own Documentation, which an importer can add items to without touching the real
+ * documentation (e.g. so that a file can be imported on another thread, or imported again after it has changed).
+ */
+final class DocumentationCollector implements Documentable {
+
+    private final Documentation documentation = new Documentation();
+
+    @Override
+    public Documentation getDocumentation() {
+        return documentation;
+    }
+
+}
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.structurizr.importer.documentation;
 import com.structurizr.documentation.Documentable;
 
 import java.io.File;
+import java.nio.file.Path;
 
 /**
  * An interface implemented by documentation importers.
@@ -17,4 +18,15 @@ public interface DocumentationImporter {
      */
     void importDocumentation(Documentable documentable, File path);
 
+    /**
+     * Imports documentation from the specified path. This isn't an overload of importDocumentation, so that
+     * existing calls passing a null path remain unambiguous.
+     *
+     * @param documentable      the item that documentation should be associated with
+     * @param path              the path to import documentation from
+     */
+    default void importDocumentationFrom(Documentable documentable, Path path) {
+        importDocumentation(documentable, path != null ? path.toFile() : null);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,725 @@
+package com.structurizr.importer.documentation;
+
+import com.structurizr.documentation.Decision;
+import com.structurizr.documentation.Documentable;
+import com.structurizr.documentation.Documentation;
+import com.structurizr.documentation.Image;
+import com.structurizr.documentation.Section;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps documentation up to date with the files on disk, for use while authoring.
+ * Each watched directory is imported in full (by the supplied importer) when the watcher is started, after which
+ * a WatchService is used to apply only the changes: a changed file replaces its section, image or decision, a new
+ * file is added, and a deleted file is removed. Bursts of events (e.g. an editor saving several files) are debounced
+ * and coalesced.
+ *
+ * Documentation only provides methods to add items, so each batch of changes produces a new Documentation instance,
+ * containing the items from all of the watched directories (the items from unchanged files are reused, rather than
+ * being read again). This is available from getDocumentation(), and is passed to the listener, which can swap it in
+ * (e.g. into a Documentable whose documentation can be replaced). When the watcher is created with a Documentable
+ * (e.g. a workspace), everything is also imported into that Documentable when the watcher is started, and the items
+ * from new files are added to it as they appear; changed and deleted files can only be reflected by swapping in the
+ * new Documentation. Changes are applied on a background thread.
+ */
+public class DocumentationWatcher implements Closeable {
+
+    private static final long DEFAULT_DEBOUNCE_DELAY_IN_MILLISECONDS = 250;
+
+    private final Documentable documentable;
+    private final List<WatchedDirectory> watchedDirectories = new ArrayList<>();
+    private final Map<WatchKey, Path> directoriesByKey = new HashMap<>();
+
+    private long debounceDelay = DEFAULT_DEBOUNCE_DELAY_IN_MILLISECONDS;
+    private Listener listener;
+
+    private volatile Documentation documentation;
+    private WatchService watchService;
+    private Thread thread;
+
+    /**
+     * Creates a watcher whose documentation is only available via getDocumentation() and the listener.
+     */
+    public DocumentationWatcher() {
+        this(null);
+    }
+
+    /**
+     * Creates a watcher that also imports into the specified documentable, when started, and adds the items from
+     * new files to it as they appear.
+     *
+     * @param documentable      the item that documentation should be associated with (e.g. a workspace), or null
+     */
+    public DocumentationWatcher(Documentable documentable) {
+        this.documentable = documentable;
+    }
+
+    /**
+     * Watches a directory of Markdown/AsciiDoc files (recursively), each of which is imported as a section.
+     *
+     * @param directory     the directory to watch
+     */
+    public void watchSections(File directory) {
+        watchSections(directory, new RecursiveDefaultDocumentationImporter());
+    }
+
+    /**
+     * Watches a directory of Markdown/AsciiDoc files, using the specified importer to import sections.
+     * Subdirectories are only watched when the importer is a RecursiveDefaultDocumentationImporter.
+     *
+     * @param directory     the directory to watch
+     * @param importer      the importer used to import sections
+     */
+    public void watchSections(File directory, DefaultDocumentationImporter importer) {
+        watch(new SectionsDirectory(canonicalDirectory(directory), importer));
+    }
+
+    /**
+     * Watches a directory of images (recursively).
+     *
+     * @param directory     the directory to watch
+     */
+    public void watchImages(File directory) {
+        watchImages(directory, new DefaultImageImporter());
+    }
+
+    /**
+     * Watches a directory of images (recursively), using the specified importer to import images.
+     *
+     * @param directory     the directory to watch
+     * @param importer      the importer used to import images
+     */
+    public void watchImages(File directory, DefaultImageImporter importer) {
+        watch(new ImagesDirectory(canonicalDirectory(directory), importer));
+    }
+
+    /**
+     * Watches a directory of architecture decision records created/managed by adr-tools.
+     *
+     * @param directory     the directory to watch
+     */
+    public void watchDecisions(File directory) {
+        watchDecisions(directory, new AdrToolsDecisionImporter());
+    }
+
+    /**
+     * Watches a directory of architecture decision records, using the specified importer. Links between decisions
+     * are resolved across the whole directory, so the directory is listed again after each change, but only the
+     * decision files that have changed are parsed (unless the importer overrides importDecision(File)).
+     * Any manifest set on the importer is kept up to date too.
+     *
+     * @param directory     the directory to watch
+     * @param importer      the importer used to import decisions
+     */
+    public void watchDecisions(File directory, AdrToolsDecisionImporter importer) {
+        watch(new DecisionsDirectory(canonicalDirectory(directory), importer));
+    }
+
+    /**
+     * Sets how long to wait for further changes before applying a batch of changes (the default is 250ms).
+     *
+     * @param debounceDelay     a number of milliseconds
+     */
+    public void setDebounceDelay(long debounceDelay) {
+        if (debounceDelay < 0) {
+            throw new IllegalArgumentException("The debounce delay must be zero or more.");
+        }
+
+        this.debounceDelay = debounceDelay;
+    }
+
+    /**
+     * Gets the documentation imported from the watched directories, as of the most recent batch of changes.
+     *
+     * @return  a Documentation instance, or null if the watcher hasn't been started
+     */
+    public Documentation getDocumentation() {
+        return documentation;
+    }
+
+    /**
+     * Sets the listener that is notified when changes have been applied (the default is null).
+     *
+     * @param listener      a Listener implementation, or null
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Imports all of the watched directories, and then starts watching them for changes.
+     *
+     * @throws IOException  if the directories can't be watched
+     */
+    public synchronized void start() throws IOException {
+        if (thread != null) {
+            throw new IllegalStateException("This watcher has already been started.");
+        }
+
+        if (watchedDirectories.isEmpty()) {
+            throw new IllegalStateException("No directories are being watched.");
+        }
+
+        watchService = FileSystems.getDefault().newWatchService();
+        for (WatchedDirectory watchedDirectory : watchedDirectories) {
+            register(watchedDirectory.root, watchedDirectory.isRecursive());
+        }
+
+        for (WatchedDirectory watchedDirectory : watchedDirectories) {
+            watchedDirectory.load();
+        }
+        documentation = createDocumentation();
+        addNewItems(null, documentation);
+
+        thread = new Thread(this::run, "structurizr-documentation-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching for changes.
+     *
+     * @throws IOException  if the underlying WatchService can't be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void watch(WatchedDirectory watchedDirectory) {
+        if (thread != null) {
+            throw new IllegalStateException("Directories must be added before the watcher is started.");
+        }
+
+        watchedDirectories.add(watchedDirectory);
+    }
+
+    private static Path canonicalDirectory(File directory) {
+        if (directory == null) {
+            throw new IllegalArgumentException("A path must be specified.");
+        }
+
+        BasicFileAttributes attributes = DirectoryScanner.readAttributes(directory.toPath());
+        if (attributes == null) {
+            throw new IllegalArgumentException(directory.getAbsolutePath() + " does not exist.");
+        } else if (!attributes.isDirectory()) {
+            throw new IllegalArgumentException(directory.getAbsolutePath() + " is not a directory.");
+        }
+
+        try {
+            return directory.getCanonicalFile().toPath();
+        } catch (IOException e) {
+            throw new DocumentationImportException(e);
+        }
+    }
+
+    private void register(Path directory, boolean recursive) throws IOException {
+        WatchKey key = directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+        directoriesByKey.put(key, directory);
+
+        if (recursive) {
+            for (DirectoryScanner.Entry entry : DirectoryScanner.list(directory)) {
+                if (entry.isDirectory()) {
+                    register(entry.getPath(), true);
+                }
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<Path> changes = new LinkedHashSet<>();
+                boolean overflow = collect(watchService.take(), changes);
+
+                // keep collecting until there's a quiet period, so that a burst of events is applied once
+                WatchKey key = watchService.poll(debounceDelay, TimeUnit.MILLISECONDS);
+                while (key != null) {
+                    overflow |= collect(key, changes);
+                    key = watchService.poll(debounceDelay, TimeUnit.MILLISECONDS);
+                }
+
+                apply(changes, overflow);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // the watcher has been closed
+        }
+    }
+
+    private boolean collect(WatchKey key, Set<Path> changes) {
+        boolean overflow = false;
+        Path directory = directoriesByKey.get(key);
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+            } else if (directory != null) {
+                changes.add(directory.resolve((Path)event.context()));
+            }
+        }
+
+        if (!key.reset()) {
+            directoriesByKey.remove(key);
+        }
+
+        return overflow;
+    }
+
+    private void apply(Set<Path> changes, boolean overflow) {
+        try {
+            Set<Path> appliedChanges = new LinkedHashSet<>();
+            for (WatchedDirectory watchedDirectory : watchedDirectories) {
+                if (overflow) {
+                    // some events were lost, so start again from scratch
+                    watchedDirectory.load();
+                } else {
+                    boolean changed = false;
+                    for (Path path : changes) {
+                        if (watchedDirectory.contains(path)) {
+                            registerIfNewDirectory(watchedDirectory, path);
+                            watchedDirectory.apply(path);
+                            appliedChanges.add(path);
+                            changed = true;
+                        }
+                    }
+
+                    if (changed) {
+                        watchedDirectory.changesApplied();
+                    }
+                }
+            }
+
+            if (overflow || !appliedChanges.isEmpty()) {
+                Documentation previousDocumentation = this.documentation;
+                Documentation documentation = createDocumentation();
+                this.documentation = documentation;
+                addNewItems(previousDocumentation, documentation);
+
+                if (listener != null) {
+                    listener.documentationChanged(documentation, overflow ? Collections.emptySet() : appliedChanges);
+                }
+            }
+        } catch (Exception e) {
+            if (listener != null) {
+                listener.documentationChangeFailed(e);
+            }
+        }
+    }
+
+    private Documentation createDocumentation() {
+        Documentation documentation = new Documentation();
+        for (WatchedDirectory watchedDirectory : watchedDirectories) {
+            watchedDirectory.addTo(documentation);
+        }
+
+        return documentation;
+    }
+
+    /**
+     * Adds the items that weren't in the previous documentation to the documentable (if there is one).
+     */
+    private void addNewItems(Documentation previousDocumentation, Documentation documentation) {
+        if (documentable == null) {
+            return;
+        }
+
+        Documentation target = documentable.getDocumentation();
+        Set<String> filenames = new HashSet<>();
+        Set<String> imageNames = new HashSet<>();
+        Set<String> decisionIds = new HashSet<>();
+        if (previousDocumentation != null) {
+            previousDocumentation.getSections().forEach(section -> filenames.add(section.getFilename()));
+            previousDocumentation.getImages().forEach(image -> imageNames.add(image.getName()));
+        }
+        // a decision ID can only be added once
+        target.getDecisions().forEach(decision -> decisionIds.add(decision.getId()));
+
+        List<Section> sections = new ArrayList<>(documentation.getSections());
+        sections.sort(Comparator.comparingInt(Section::getOrder));
+        for (Section section : sections) {
+            if (!filenames.contains(section.getFilename())) {
+                Section copy = new Section(section.getFormat(), section.getContent());
+                copy.setFilename(section.getFilename());
+                target.addSection(copy);
+            }
+        }
+
+        for (Image image : documentation.getImages()) {
+            if (!imageNames.contains(image.getName())) {
+                target.addImage(image);
+            }
+        }
+
+        for (Decision decision : documentation.getDecisions()) {
+            if (!decisionIds.contains(decision.getId())) {
+                target.addDecision(decision);
+            }
+        }
+    }
+
+    private void registerIfNewDirectory(WatchedDirectory watchedDirectory, Path path) throws IOException {
+        if (watchedDirectory.isRecursive() && !directoriesByKey.containsValue(path)) {
+            BasicFileAttributes attributes = DirectoryScanner.readAttributes(path);
+            if (attributes != null && attributes.isDirectory()) {
+                register(path, true);
+            }
+        }
+    }
+
+    /**
+     * Compares paths one name element at a time, which gives the same order as a sorted depth-first traversal
+     * (i.e. "a/b.md" comes before "a.md").
+     */
+    private static int compare(Path a, Path b) {
+        int count = Math.min(a.getNameCount(), b.getNameCount());
+        for (int i = 0; i < count; i++) {
+            int result = a.getName(i).compareTo(b.getName(i));
+            if (result != 0) {
+                return result;
+            }
+        }
+
+        return Integer.compare(a.getNameCount(), b.getNameCount());
+    }
+
+    /**
+     * Notified when changes have been applied to the documentation.
+     */
+    public interface Listener {
+
+        /**
+         * Called when a batch of changes has been applied.
+         *
+         * @param documentation     the new documentation, with the changes applied
+         * @param paths             the files and directories that changed (empty if events were lost, and everything was imported again)
+         */
+        void documentationChanged(Documentation documentation, Set<Path> paths);
+
+        /**
+         * Called when a batch of changes can't be applied.
+         *
+         * @param e     the reason
+         */
+        default void documentationChangeFailed(Exception e) {
+        }
+
+    }
+
+    private abstract static class WatchedDirectory {
+
+        final Path root;
+
+        WatchedDirectory(Path root) {
+            this.root = root;
+        }
+
+        abstract boolean isRecursive();
+
+        boolean contains(Path path) {
+            return path.startsWith(root) && !path.equals(root) && (isRecursive() || root.equals(path.getParent()));
+        }
+
+        /**
+         * Imports everything in the directory.
+         */
+        abstract void load();
+
+        /**
+         * Applies a change to a single file or directory.
+         */
+        abstract void apply(Path path) throws Exception;
+
+        /**
+         * Called after a batch of changes has been applied.
+         */
+        void changesApplied() throws Exception {
+        }
+
+        /**
+         * Adds the current items to the specified (new) documentation.
+         */
+        abstract void addTo(Documentation documentation);
+
+    }
+
+    private abstract static class ImportedDirectory<T> extends WatchedDirectory {
+
+        private final SortedMap<Path,List<T>> itemsByPath = new TreeMap<>(DocumentationWatcher::compare);
+
+        ImportedDirectory(Path root) {
+            super(root);
+        }
+
+        /**
+         * Imports the whole directory, as the importer does when it's used on its own.
+         */
+        abstract void importDirectory(Documentable documentable);
+
+        /**
+         * Imports a single file, in the same way that the importer imports each file in the directory.
+         */
+        abstract void importFile(Documentable documentable, Path path) throws Exception;
+
+        /**
+         * Determines whether the importer imports the specified file when it imports the directory.
+         */
+        abstract boolean isImported(Path path);
+
+        abstract Collection<T> getItems(Documentation documentation);
+
+        abstract String getName(T item);
+
+        abstract void add(Documentation documentation, T item);
+
+        @Override
+        void load() {
+            DocumentationCollector collector = new DocumentationCollector();
+            importDirectory(collector);
+
+            itemsByPath.clear();
+            for (T item : getItems(collector.getDocumentation())) {
+                itemsByPath.computeIfAbsent(root.resolve(getName(item)), p -> new ArrayList<>()).add(item);
+            }
+        }
+
+        @Override
+        void apply(Path path) throws Exception {
+            BasicFileAttributes attributes = DirectoryScanner.readAttributes(path);
+            if (attributes != null && attributes.isDirectory()) {
+                // the files in a known directory report their own changes, but a new (or moved) directory may
+                // already contain files, so the directory is imported again
+                if (isRecursive() && itemsByPath.keySet().stream().noneMatch(p -> p.startsWith(path))) {
+                    load();
+                }
+
+                return;
+            }
+
+            // remove the path, and anything below it if it was a directory
+            itemsByPath.keySet().removeIf(p -> p.startsWith(path));
+
+            if (attributes != null && isImported(path)) {
+                DocumentationCollector collector = new DocumentationCollector();
+                importFile(collector, path);
+
+                Collection<T> items = getItems(collector.getDocumentation());
+                if (!items.isEmpty()) {
+                    itemsByPath.put(path, new ArrayList<>(items));
+                }
+            }
+        }
+
+        @Override
+        void addTo(Documentation documentation) {
+            for (List<T> items : itemsByPath.values()) {
+                for (T item : items) {
+                    add(documentation, item);
+                }
+            }
+        }
+
+        Set<String> getNames() {
+            Set<String> names = new HashSet<>();
+            for (List<T> items : itemsByPath.values()) {
+                for (T item : items) {
+                    names.add(getName(item));
+                }
+            }
+
+            return names;
+        }
+
+    }
+
+    private static final class SectionsDirectory extends ImportedDirectory<Section> {
+
+        private final DefaultDocumentationImporter importer;
+
+        SectionsDirectory(Path root, DefaultDocumentationImporter importer) {
+            super(root);
+            this.importer = importer;
+        }
+
+        @Override
+        boolean isRecursive() {
+            return importer instanceof RecursiveDefaultDocumentationImporter;
+        }
+
+        @Override
+        void importDirectory(Documentable documentable) {
+            importer.importDocumentation(documentable, root.toFile());
+        }
+
+        @Override
+        void importFile(Documentable documentable, Path path) throws Exception {
+            importer.importFile(documentable, root, path.toFile());
+        }
+
+        @Override
+        boolean isImported(Path path) {
+            // hidden files are skipped, but (when importing recursively) hidden directories aren't
+            return !path.getFileName().toString().startsWith(".");
+        }
+
+        @Override
+        Collection<Section> getItems(Documentation documentation) {
+            List<Section> sections = new ArrayList<>(documentation.getSections());
+            sections.sort(Comparator.comparingInt(Section::getOrder));
+
+            return sections;
+        }
+
+        @Override
+        String getName(Section section) {
+            return section.getFilename();
+        }
+
+        @Override
+        void add(Documentation documentation, Section section) {
+            // adding a section sets its order, so a copy is added, leaving the previous documentation unchanged
+            Section copy = new Section(section.getFormat(), section.getContent());
+            copy.setFilename(section.getFilename());
+            documentation.addSection(copy);
+        }
+
+    }
+
+    private static final class ImagesDirectory extends ImportedDirectory<Image> {
+
+        private final DefaultImageImporter importer;
+        private DefaultImageImporter.ImageContents contents;
+
+        ImagesDirectory(Path root, DefaultImageImporter importer) {
+            super(root);
+            this.importer = importer;
+        }
+
+        @Override
+        boolean isRecursive() {
+            return true;
+        }
+
+        @Override
+        void importDirectory(Documentable documentable) {
+            // changed images are deduplicated against the images that have already been imported
+            contents = importer.createImageContents();
+            importer.importDocumentation(documentable, root.toFile(), contents);
+        }
+
+        @Override
+        void importFile(Documentable documentable, Path path) throws IOException {
+            Path directory = root.relativize(path).getParent();
+            documentable.getDocumentation().addImage(importer.readImage(directory != null ? directory.toString().replace(File.separatorChar, '/') : "", path.toFile(), contents));
+        }
+
+        @Override
+        void changesApplied() {
+            if (contents != null) {
+                contents.retain(getNames());
+            }
+        }
+
+        @Override
+        boolean isImported(Path path) {
+            // hidden directories are skipped, but hidden files aren't
+            Path directory = root.relativize(path).getParent();
+            if (directory != null) {
+                for (Path name : directory) {
+                    if (name.toString().startsWith(".")) {
+                        return false;
+                    }
+                }
+            }
+
+            String name = path.getFileName().toString().toLowerCase();
+            return name.endsWith(".png") || name.endsWith(".jpg") || name.endsWith(".jpeg") || name.endsWith(".gif") || name.endsWith(".svg");
+        }
+
+        @Override
+        Collection<Image> getItems(Documentation documentation) {
+            return documentation.getImages();
+        }
+
+        @Override
+        String getName(Image image) {
+            return image.getName();
+        }
+
+        @Override
+        void add(Documentation documentation, Image image) {
+            documentation.addImage(image);
+        }
+
+    }
+
+    private static final class DecisionsDirectory extends WatchedDirectory {
+
+        private final AdrToolsDecisionImporter importer;
+        private final AdrManifest manifest = new AdrManifest();
+        private Collection<Decision> decisions = Collections.emptyList();
+        private boolean stale = false;
+
+        DecisionsDirectory(Path root, AdrToolsDecisionImporter importer) {
+            super(root);
+            this.importer = importer;
+        }
+
+        @Override
+        boolean isRecursive() {
+            return false;
+        }
+
+        @Override
+        boolean contains(Path path) {
+            return super.contains(path) && path.getFileName().toString().endsWith(".md");
+        }
+
+        @Override
+        void load() {
+            // links and file references between decisions are resolved across the whole directory, so the whole
+            // directory is imported again, but the manifest means that only the changed files are parsed
+            DocumentationCollector collector = new DocumentationCollector();
+            importer.importDocumentation(collector, root.toFile(), manifest);
+            decisions = collector.getDocumentation().getDecisions();
+            stale = false;
+        }
+
+        @Override
+        void apply(Path path) {
+            // the file is parsed again even if its size and last modified time look the same
+            manifest.remove(AdrManifest.key(path.toFile()));
+
+            // a batch of changes is imported once, after it has been applied
+            stale = true;
+        }
+
+        @Override
+        void changesApplied() {
+            if (stale) {
+                load();
+            }
+        }
+
+        @Override
+        void addTo(Documentation documentation) {
+            for (Decision decision : decisions) {
+                documentation.addDecision(decision);
+            }
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -4,35 +4,143 @@ import com.structurizr.documentation.Format;
 
 import java.io.File;
 import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Optional;
 
 public class FormatFinder {
 
-    private static final Set<String> MARKDOWN_EXTENSIONS = new HashSet<>(Arrays.asList(".md", ".markdown", ".text"));
+    private static final Optional<Format> MARKDOWN = Optional.of(Format.Markdown);
+    private static final Optional<Format> ASCIIDOC = Optional.of(Format.AsciiDoc);
 
-    private static final Set<String> ASCIIDOC_EXTENSIONS = new HashSet<>(Arrays.asList(".asciidoc", ".adoc", ".asc"));
+    // copy-on-write, so that classify(...) can read it without locking
+    private static volatile Extension[] extensions = {
+            new Extension("md", MARKDOWN),
+            new Extension("markdown", MARKDOWN),
+            new Extension("text", MARKDOWN),
+            new Extension("asciidoc", ASCIIDOC),
+            new Extension("adoc", ASCIIDOC),
+            new Extension("asc", ASCIIDOC)
+    };
 
-    public static boolean isMarkdownOrAsciiDoc(File file) {
-        String extension = file.getName().substring(file.getName().lastIndexOf("."));
+    /**
+     * Registers a file extension (e.g. "mdown"), so that files with that extension are imported in the given format.
+     * Registering an extension that's already known changes its format.
+     *
+     * @param extension     a file extension, with or without the leading "."
+     * @param format        the Format of files with that extension
+     */
+    public static synchronized void registerExtension(String extension, Format format) {
+        if (extension == null || extension.isEmpty() || extension.equals(".")) {
+            throw new IllegalArgumentException("An extension must be specified.");
+        }
+
+        if (format == null) {
+            throw new IllegalArgumentException("A format must be specified.");
+        }
+
+        if (extension.startsWith(".")) {
+            extension = extension.substring(1);
+        }
+
+        Extension registeredExtension = new Extension(extension, Optional.of(format));
+        Extension[] extensions = FormatFinder.extensions;
+        for (int i = 0; i < extensions.length; i++) {
+            if (extensions[i].name.equalsIgnoreCase(extension)) {
+                extensions = extensions.clone();
+                extensions[i] = registeredExtension;
+                FormatFinder.extensions = extensions;
+
+                return;
+            }
+        }
 
-        return MARKDOWN_EXTENSIONS.contains(extension) || ASCIIDOC_EXTENSIONS.contains(extension);
+        extensions = Arrays.copyOf(extensions, extensions.length + 1);
+        extensions[extensions.length - 1] = registeredExtension;
+        FormatFinder.extensions = extensions;
     }
 
-    public static Format findFormat(File file) {
+    /**
+     * Unregisters a file extension, so that files with that extension are no longer imported
+     * (this includes the built-in extensions). Unregistering an extension that isn't known has no effect.
+     *
+     * @param extension     a file extension, with or without the leading "."
+     */
+    public static synchronized void unregisterExtension(String extension) {
+        if (extension == null || extension.isEmpty() || extension.equals(".")) {
+            throw new IllegalArgumentException("An extension must be specified.");
+        }
+
+        if (extension.startsWith(".")) {
+            extension = extension.substring(1);
+        }
+
+        Extension[] extensions = FormatFinder.extensions;
+        for (int i = 0; i < extensions.length; i++) {
+            if (extensions[i].name.equalsIgnoreCase(extension)) {
+                Extension[] remainingExtensions = new Extension[extensions.length - 1];
+                System.arraycopy(extensions, 0, remainingExtensions, 0, i);
+                System.arraycopy(extensions, i + 1, remainingExtensions, i, extensions.length - i - 1);
+                FormatFinder.extensions = remainingExtensions;
+
+                return;
+            }
+        }
+    }
+
+    /**
+     * Finds the format of a file from its extension (case-insensitive), without allocating.
+     *
+     * @param file      a File
+     * @return  the Format, or an empty Optional if the file isn't Markdown or AsciiDoc (including files without an extension)
+     */
+    public static Optional<Format> classify(File file) {
         if (file == null) {
             throw new IllegalArgumentException("A file must be specified.");
         }
 
-        String extension = file.getName().substring(file.getName().lastIndexOf("."));
-        if (MARKDOWN_EXTENSIONS.contains(extension)) {
-            return Format.Markdown;
-        } else if (ASCIIDOC_EXTENSIONS.contains(extension)) {
-            return Format.AsciiDoc;
-        } else {
-            // just assume Markdown
-            return Format.Markdown;
+        // the path ends with the name, so there's no need to extract the name (which would create a new String)
+        return classify(file.getPath());
+    }
+
+    /**
+     * Finds the format of a file from the extension of its name (case-insensitive), without allocating.
+     *
+     * @param filename      a file name, or path
+     * @return  the Format, or an empty Optional if the file isn't Markdown or AsciiDoc (including files without an extension)
+     */
+    public static Optional<Format> classify(String filename) {
+        if (filename == null) {
+            throw new IllegalArgumentException("A filename must be specified.");
         }
+
+        for (Extension extension : extensions) {
+            int start = filename.length() - extension.name.length();
+            if (start > 0 && filename.charAt(start - 1) == '.' && filename.regionMatches(true, start, extension.name, 0, extension.name.length())) {
+                return extension.format;
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    public static boolean isMarkdownOrAsciiDoc(File file) {
+        return classify(file).isPresent();
+    }
+
+    public static Format findFormat(File file) {
+        // just assume Markdown
+        return classify(file).orElse(Format.Markdown);
+    }
+
+    private static final class Extension {
+
+        private final String name;
+        private final Optional<Format> format;
+
+        private Extension(String name, Optional<Format> format) {
+            this.name = name;
+            this.format = format;
+        }
+
     }
 
 }
\ No newline at end of file
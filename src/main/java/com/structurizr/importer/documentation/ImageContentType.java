@@ -0,0 +1,72 @@
+package com.structurizr.importer.documentation;
+
+import com.structurizr.util.ImageUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Detects the content type of a raster image file from its signature, rather than from its name.
+ * SVG has no signature (and may start with an arbitrarily long preamble), so it's detected from the .svg extension.
+ */
+final class ImageContentType {
+
+    private static final int HEADER_SIZE = 8;
+
+    private static final byte[] PNG_SIGNATURE = { (byte)0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+    private static final byte[] JPEG_SIGNATURE = { (byte)0xFF, (byte)0xD8, (byte)0xFF };
+    private static final byte[] GIF87A_SIGNATURE = { 'G', 'I', 'F', '8', '7', 'a' };
+    private static final byte[] GIF89A_SIGNATURE = { 'G', 'I', 'F', '8', '9', 'a' };
+
+    private ImageContentType() {
+    }
+
+    /**
+     * Detects the content type of the specified file.
+     *
+     * @return  a content type (e.g. "image/png"), or null if the file isn't a supported image
+     */
+    static String detect(Path file) throws IOException {
+        byte[] header = new byte[HEADER_SIZE];
+        int length;
+        try (InputStream in = Files.newInputStream(file)) {
+            length = in.readNBytes(header, 0, header.length);
+        }
+
+        String contentType = detect(header, length);
+        if (contentType == null && file.getFileName().toString().toLowerCase().endsWith(".svg")) {
+            contentType = ImageUtils.CONTENT_TYPE_IMAGE_SVG;
+        }
+
+        return contentType;
+    }
+
+    static String detect(byte[] header, int length) {
+        if (startsWith(header, length, PNG_SIGNATURE)) {
+            return ImageUtils.CONTENT_TYPE_IMAGE_PNG;
+        } else if (startsWith(header, length, JPEG_SIGNATURE)) {
+            return ImageUtils.CONTENT_TYPE_IMAGE_JPG;
+        } else if (startsWith(header, length, GIF87A_SIGNATURE) || startsWith(header, length, GIF89A_SIGNATURE)) {
+            return ImageUtils.CONTENT_TYPE_IMAGE_GIF;
+        }
+
+        return null;
+    }
+
+    private static boolean startsWith(byte[] header, int length, byte[] signature) {
+        if (length < signature.length) {
+            return false;
+        }
+
+        for (int i = 0; i < signature.length; i++) {
+            if (header[i] != signature[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,221 @@
+package com.structurizr.importer.documentation;
+
+import com.structurizr.util.ImageUtils;
+
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import javax.imageio.*;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Makes PNG and JPEG images smaller, using only the JDK's ImageIO: images larger than the maximum dimensions
+ * are downsampled (preserving their aspect ratio), and PNGs are recompressed losslessly at the highest
+ * compression level. The result is only used when it's smaller than the original. The colour management
+ * (gAMA, sRGB, iCCP, cHRM) and physical dimension (pHYs) chunks of PNGs are carried over to the result.
+ */
+final class ImageOptimizer {
+
+    private static final float DOWNSAMPLED_JPEG_QUALITY = 0.9f;
+
+    private static final String PNG_METADATA_FORMAT = "javax_imageio_png_1.0";
+    private static final Set<String> PRESERVED_PNG_CHUNKS = Set.of("gAMA", "sRGB", "iCCP", "cHRM", "pHYs");
+
+    private final int maximumWidth;
+    private final int maximumHeight;
+
+    /**
+     * @param maximumWidth      the maximum width in pixels, or 0 for no limit
+     * @param maximumHeight     the maximum height in pixels, or 0 for no limit
+     */
+    ImageOptimizer(int maximumWidth, int maximumHeight) {
+        this.maximumWidth = maximumWidth;
+        this.maximumHeight = maximumHeight;
+    }
+
+    static boolean isSupported(String contentType) {
+        return ImageUtils.CONTENT_TYPE_IMAGE_PNG.equalsIgnoreCase(contentType) || ImageUtils.CONTENT_TYPE_IMAGE_JPG.equalsIgnoreCase(contentType);
+    }
+
+    /**
+     * Optimizes an image.
+     *
+     * @return  the optimized image, or the original bytes if optimizing the image doesn't make it smaller
+     */
+    byte[] optimize(byte[] original, String contentType) throws IOException {
+        BufferedImage image;
+        IIOMetadata metadata;
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(original))) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                return original;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, false);
+                image = reader.read(0);
+                metadata = reader.getImageMetadata(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        boolean png = ImageUtils.CONTENT_TYPE_IMAGE_PNG.equalsIgnoreCase(contentType);
+        BufferedImage downsampledImage = downsample(image, png);
+        if (!png && downsampledImage == image) {
+            // re-encoding a JPEG without downsampling it would only lose quality
+            return original;
+        }
+
+        byte[] optimized = png ? writePng(downsampledImage, metadata, (double)downsampledImage.getWidth() / image.getWidth()) : writeJpeg(downsampledImage);
+
+        return optimized.length < original.length ? optimized : original;
+    }
+
+    private BufferedImage downsample(BufferedImage image, boolean png) {
+        double scale = 1.0;
+        if (maximumWidth > 0 && image.getWidth() > maximumWidth) {
+            scale = Math.min(scale, (double)maximumWidth / image.getWidth());
+        }
+        if (maximumHeight > 0 && image.getHeight() > maximumHeight) {
+            scale = Math.min(scale, (double)maximumHeight / image.getHeight());
+        }
+
+        if (scale == 1.0) {
+            return image;
+        }
+
+        int width = Math.max(1, (int)Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int)Math.round(image.getHeight() * scale));
+        int type = png && image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage downsampledImage = new BufferedImage(width, height, type);
+        Graphics2D graphics = downsampledImage.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        return downsampledImage;
+    }
+
+    private static byte[] writePng(BufferedImage image, IIOMetadata originalMetadata, double scale) throws IOException {
+        // for PNG, the compression quality only sets the deflate level, so this is lossless
+        return write(image, "png", 0.0f, (writer, parameters) -> {
+            IIOMetadataNode chunks = originalMetadata != null ? preservedPngChunks(originalMetadata, scale) : null;
+            if (chunks == null) {
+                return null;
+            }
+
+            // start from metadata that describes the image being written (the colour type and bit depth may have changed)
+            IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), parameters);
+            metadata.mergeTree(PNG_METADATA_FORMAT, chunks);
+
+            return metadata;
+        });
+    }
+
+    private static byte[] writeJpeg(BufferedImage image) throws IOException {
+        return write(image, "jpeg", DOWNSAMPLED_JPEG_QUALITY, (writer, parameters) -> null);
+    }
+
+    private static boolean hasPngMetadata(IIOMetadata metadata) {
+        return PNG_METADATA_FORMAT.equals(metadata.getNativeMetadataFormatName());
+    }
+
+    /**
+     * Copies the chunks to carry over from the original PNG, scaling the pixels per unit so that the
+     * physical dimensions of a downsampled image stay the same.
+     *
+     * @return  a native PNG metadata tree, or null if there are no chunks to carry over
+     */
+    private static IIOMetadataNode preservedPngChunks(IIOMetadata metadata, double scale) {
+        if (!hasPngMetadata(metadata)) {
+            return null;
+        }
+
+        IIOMetadataNode chunks = new IIOMetadataNode(PNG_METADATA_FORMAT);
+        for (Node chunk = metadata.getAsTree(PNG_METADATA_FORMAT).getFirstChild(); chunk != null; chunk = chunk.getNextSibling()) {
+            if (PRESERVED_PNG_CHUNKS.contains(chunk.getNodeName())) {
+                IIOMetadataNode copy = copy(chunk);
+                if (copy.getNodeName().equals("pHYs") && scale != 1.0) {
+                    scaleAttribute(copy, "pixelsPerUnitXAxis", scale);
+                    scaleAttribute(copy, "pixelsPerUnitYAxis", scale);
+                }
+                chunks.appendChild(copy);
+            }
+        }
+
+        return chunks.hasChildNodes() ? chunks : null;
+    }
+
+    private static IIOMetadataNode copy(Node node) {
+        // IIOMetadataNode.cloneNode() doesn't copy attributes
+        IIOMetadataNode copy = new IIOMetadataNode(node.getNodeName());
+        NamedNodeMap attributes = node.getAttributes();
+        for (int i = 0; i < attributes.getLength(); i++) {
+            copy.setAttribute(attributes.item(i).getNodeName(), attributes.item(i).getNodeValue());
+        }
+        if (node instanceof IIOMetadataNode) {
+            copy.setUserObject(((IIOMetadataNode)node).getUserObject());
+        }
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            copy.appendChild(copy(child));
+        }
+
+        return copy;
+    }
+
+    private static void scaleAttribute(IIOMetadataNode node, String name, double scale) {
+        if (node.hasAttribute(name)) {
+            long value = Long.parseLong(node.getAttribute(name));
+            node.setAttribute(name, Long.toString(Math.max(1, Math.round(value * scale))));
+        }
+    }
+
+    private static byte[] write(BufferedImage image, String format, float compressionQuality, MetadataFactory metadataFactory) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("There is no ImageIO writer for " + format + " images.");
+        }
+
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(buffer)) {
+            ImageWriteParam parameters = writer.getDefaultWriteParam();
+            if (parameters.canWriteCompressed()) {
+                parameters.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                parameters.setCompressionQuality(compressionQuality);
+            }
+
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, metadataFactory.create(writer, parameters)), parameters);
+        } finally {
+            writer.dispose();
+        }
+
+        return buffer.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface MetadataFactory {
+
+        IIOMetadata create(ImageWriter writer, ImageWriteParam parameters) throws IOException;
+
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,115 @@
+package com.structurizr.importer.documentation;
+
+import java.util.*;
+
+/**
+ * Replaces all occurrences of a fixed set of strings in a single left-to-right scan, using an
+ * Aho-Corasick automaton that is built once and can then be reused (and shared between threads).
+ *
+ * Where two matches overlap, the one that starts first wins, and then the longest of those.
+ */
+final class MultiStringReplacer {
+
+    private final Node root = new Node();
+    private final List<String> targets = new ArrayList<>();
+    private final List<String> replacements = new ArrayList<>();
+
+    MultiStringReplacer(Map<String,String> replacementsByTarget) {
+        for (Map.Entry<String,String> entry : replacementsByTarget.entrySet()) {
+            String target = entry.getKey();
+            if (target == null || target.isEmpty()) {
+                continue;
+            }
+
+            Node node = root;
+            for (int i = 0; i < target.length(); i++) {
+                node = node.children.computeIfAbsent(target.charAt(i), c -> new Node());
+            }
+
+            node.target = targets.size();
+            targets.add(target);
+            replacements.add(entry.getValue());
+        }
+
+        // breadth-first, so that the failure link of every node's parent is known before the node itself
+        Deque<Node> queue = new ArrayDeque<>();
+        for (Node child : root.children.values()) {
+            child.failure = root;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            Node node = queue.remove();
+            for (Map.Entry<Character,Node> entry : node.children.entrySet()) {
+                char c = entry.getKey();
+                Node child = entry.getValue();
+
+                Node failure = node.failure;
+                while (failure != root && !failure.children.containsKey(c)) {
+                    failure = failure.failure;
+                }
+                child.failure = failure.children.getOrDefault(c, root);
+                child.output = child.failure.target >= 0 ? child.failure : child.failure.output;
+
+                queue.add(child);
+            }
+        }
+    }
+
+    String replace(String content) {
+        if (content == null || targets.isEmpty()) {
+            return content;
+        }
+
+        List<int[]> matches = null;
+        Node node = root;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            while (node != root && !node.children.containsKey(c)) {
+                node = node.failure;
+            }
+            node = node.children.getOrDefault(c, root);
+
+            Node match = node.target >= 0 ? node : node.output;
+            while (match != null) {
+                if (matches == null) {
+                    matches = new ArrayList<>();
+                }
+
+                int length = targets.get(match.target).length();
+                matches.add(new int[] { i - length + 1, length, match.target });
+                match = match.output;
+            }
+        }
+
+        if (matches == null) {
+            return content;
+        }
+
+        matches.sort((a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(b[1], a[1]));
+
+        StringBuilder buf = new StringBuilder(content.length());
+        int position = 0;
+        for (int[] match : matches) {
+            int start = match[0];
+            if (start >= position) {
+                buf.append(content, position, start);
+                buf.append(replacements.get(match[2]));
+                position = start + match[1];
+            }
+        }
+        buf.append(content, position, content.length());
+
+        return buf.toString();
+    }
+
+    private static final class Node {
+
+        private final Map<Character,Node> children = new HashMap<>();
+        private Node failure;
+        private Node output;
+        private int target = -1;
+
+    }
+
+}
\ No newline at end of file
@@ -4,13 +4,34 @@ import com.structurizr.documentation.Documentable;
 import com.structurizr.documentation.Section;
 
 import java.io.File;
-import java.util.Arrays;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * This implementation extends the DefaultDocumentationImporter to recursively import documentation.
  */
 public class RecursiveDefaultDocumentationImporter extends DefaultDocumentationImporter {
 
+    private ForkJoinPool forkJoinPool;
+
+    /**
+     * Sets the fork/join pool used to list directories and read files in parallel (the default is null,
+     * which imports everything on the calling thread). Sections are added in the same order either way.
+     * When a pool is set, importFile(Documentable, Path, File) is called concurrently, with a placeholder
+     * Documentable per file; the sections it adds are then moved to the real documentation, in order.
+     *
+     * @param forkJoinPool      a ForkJoinPool instance (e.g. ForkJoinPool.commonPool()), or null
+     */
+    public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
+    }
+
     /**
      * Imports Markdown/AsciiDoc files from the specified path, each in its own section.
      *
@@ -26,45 +47,108 @@ public class RecursiveDefaultDocumentationImporter extends DefaultDocumentationI
 
             if (path == null) {
                 throw new IllegalArgumentException("A path must be specified");
-            } else if (!path.exists()) {
-                throw new IllegalArgumentException(path.getAbsolutePath() + " does not exist");
             }
 
-            if (path.isDirectory()) {
-                importDirectory(documentable, path);
-            } else {
-                importFile(documentable, path);
+            BasicFileAttributes attributes = DirectoryScanner.readAttributes(path.toPath());
+            if (attributes == null) {
+                throw new IllegalArgumentException(path.getAbsolutePath() + " does not exist");
             }
 
-            // now trim the filenames
-            for (Section section : documentable.getDocumentation().getSections()) {
-                String filename = section.getFilename();
+            // section filenames are relative to this (canonicalised once) root
+            Path root = path.getCanonicalFile().toPath();
 
-                filename = filename.replace(path.getCanonicalPath(), "");
-                if (filename.startsWith("/")) {
-                    filename = filename.substring(1);
+            if (attributes.isDirectory() && forkJoinPool != null) {
+                List<Section> sections;
+                try {
+                    sections = forkJoinPool.invoke(new ReadTask(root, new DirectoryScanner.Entry(root, attributes)));
+                } catch (DocumentationImportException e) {
+                    throw unwrap(e);
                 }
 
-                section.setFilename(filename);
+                for (Section section : sections) {
+                    documentable.getDocumentation().addSection(section);
+                }
+            } else if (attributes.isDirectory()) {
+                importDirectory(documentable, root, root);
+            } else {
+                importFile(documentable, root, root.toFile());
             }
+        } catch (DocumentationImportException e) {
+            throw e;
         } catch (Exception e) {
             throw new DocumentationImportException(e);
         }
     }
 
-    private void importDirectory(Documentable documentable, File path) throws Exception {
-        File[] filesInDirectory = path.listFiles();
-        if (filesInDirectory != null) {
-            Arrays.sort(filesInDirectory);
+    private void importDirectory(Documentable documentable, Path root, Path path) throws Exception {
+        for (DirectoryScanner.Entry entry : DirectoryScanner.list(path)) {
+            if (!entry.isDirectory() && !entry.isHidden()) {
+                importFile(documentable, root, entry.toFile());
+            } else if (entry.isDirectory()) {
+                importDirectory(documentable, root, entry.getPath());
+            }
+        }
+    }
+
+    // a fork/join task rethrows an exception from another thread as a copy (with the original as the cause)
+    private static DocumentationImportException unwrap(DocumentationImportException e) {
+        while (e.getCause() instanceof DocumentationImportException) {
+            e = (DocumentationImportException)e.getCause();
+        }
+
+        return e;
+    }
+
+    /**
+     * Reads the sections from a file, or (recursively) from a directory, in the same sorted depth-first order
+     * as importDirectory, forking a subtask for each directory entry.
+     */
+    private final class ReadTask extends RecursiveTask<List<Section>> {
+
+        private final Path root;
+        private final DirectoryScanner.Entry entry;
+
+        private ReadTask(Path root, DirectoryScanner.Entry entry) {
+            this.root = root;
+            this.entry = entry;
+        }
+
+        @Override
+        protected List<Section> compute() {
+            try {
+                if (!entry.isDirectory()) {
+                    if (entry.isHidden()) {
+                        return Collections.emptyList();
+                    }
+
+                    DocumentationCollector collector = new DocumentationCollector();
+                    importFile(collector, root, entry.toFile());
+
+                    List<Section> sections = new ArrayList<>(collector.getDocumentation().getSections());
+                    sections.sort(Comparator.comparingInt(Section::getOrder));
+                    return sections;
+                }
+
+                List<DirectoryScanner.Entry> entriesInDirectory = DirectoryScanner.list(entry.getPath());
+                List<ReadTask> tasks = new ArrayList<>(entriesInDirectory.size());
+                for (DirectoryScanner.Entry entryInDirectory : entriesInDirectory) {
+                    tasks.add(new ReadTask(root, entryInDirectory));
+                }
+                invokeAll(tasks);
 
-            for (File file : filesInDirectory) {
-                if (!file.isDirectory() && !file.getName().startsWith(".")) {
-                    importFile(documentable, file);
-                } else if (file.isDirectory()) {
-                    importDirectory(documentable, file);
+                List<Section> sections = new ArrayList<>();
+                for (ReadTask task : tasks) {
+                    sections.addAll(task.join());
                 }
+
+                return sections;
+            } catch (DocumentationImportException e) {
+                throw unwrap(e);
+            } catch (Exception e) {
+                throw new DocumentationImportException(e);
             }
         }
+
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.structurizr.importer.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Emitted when an image or a (compressed) diagram definition is base64 encoded.
+ */
+@Name("com.structurizr.import.Base64Encode")
+@Label("Base64 Encode")
+@Category({ "Structurizr", "Import" })
+@Description("Emitted when an image or a (compressed) diagram definition is base64 encoded.")
+@StackTrace(false)
+public final class Base64EncodeEvent extends Event {
+
+    @Label("Path")
+    private String path;
+
+    @Label("Size")
+    @DataAmount
+    private long size;
+
+    @Label("Encoded Size")
+    @DataAmount
+    private long encodedSize;
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public void setEncodedSize(long encodedSize) {
+        this.encodedSize = encodedSize;
+    }
+
+}
\ No newline at end of file
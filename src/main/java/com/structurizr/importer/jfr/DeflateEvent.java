@@ -0,0 +1,31 @@
+package com.structurizr.importer.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Emitted when a diagram definition is compressed with the deflate algorithm.
+ */
+@Name("com.structurizr.import.Deflate")
+@Label("Deflate")
+@Category({ "Structurizr", "Import" })
+@Description("Emitted when a diagram definition is compressed with the deflate algorithm.")
+@StackTrace(false)
+public final class DeflateEvent extends Event {
+
+    @Label("Size")
+    @DataAmount
+    private long size;
+
+    @Label("Compressed Size")
+    @DataAmount
+    private long compressedSize;
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public void setCompressedSize(long compressedSize) {
+        this.compressedSize = compressedSize;
+    }
+
+}
\ No newline at end of file
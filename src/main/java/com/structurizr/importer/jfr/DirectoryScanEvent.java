@@ -0,0 +1,29 @@
+package com.structurizr.importer.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Emitted when a directory is listed, with the number of entries that were found.
+ */
+@Name("com.structurizr.import.DirectoryScan")
+@Label("Directory Scan")
+@Category({ "Structurizr", "Import" })
+@Description("Emitted when a directory is listed, with the number of entries that were found.")
+@StackTrace(false)
+public final class DirectoryScanEvent extends Event {
+
+    @Label("Path")
+    private String path;
+
+    @Label("Entries")
+    private long size;
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.structurizr.importer.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Emitted when a file is read into memory.
+ */
+@Name("com.structurizr.import.FileRead")
+@Label("File Read")
+@Category({ "Structurizr", "Import" })
+@Description("Emitted when a file is read into memory.")
+@StackTrace(false)
+public final class FileReadEvent extends Event {
+
+    @Label("Path")
+    private String path;
+
+    @Label("Size")
+    @DataAmount
+    private long size;
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+}
\ No newline at end of file
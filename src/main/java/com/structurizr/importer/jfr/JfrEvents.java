@@ -0,0 +1,178 @@
+package com.structurizr.importer.jfr;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Times the operations that the importers report to Flight Recorder, and emits the corresponding events,
+ * so that the begin/end/shouldCommit/commit sequence lives in one place.
+ */
+public final class JfrEvents {
+
+    private JfrEvents() {
+    }
+
+    /**
+     * Reads a file into memory, emitting a FileReadEvent.
+     *
+     * @param path      the file to read
+     * @return  the content of the file
+     * @throws IOException  if the file can't be read
+     */
+    public static byte[] readFile(Path path) throws IOException {
+        FileReadEvent event = new FileReadEvent();
+        event.begin();
+        byte[] bytes = Files.readAllBytes(path);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setPath(path.toString());
+            event.setSize(bytes.length);
+            event.commit();
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Base64 encodes some content, emitting a Base64EncodeEvent.
+     *
+     * @param path      the path of the file being encoded, or null if the content didn't come from a file (e.g. a diagram definition)
+     * @param size      the number of bytes being encoded
+     * @param encoder   performs the encoding
+     * @return  the encoded content
+     * @throws E    if the content can't be encoded
+     */
+    public static <E extends Exception> String base64(String path, long size, Encoder<E> encoder) throws E {
+        Base64EncodeEvent event = new Base64EncodeEvent();
+        event.begin();
+        String encoded = encoder.encode();
+        event.end();
+        if (event.shouldCommit()) {
+            event.setPath(path);
+            event.setSize(size);
+            event.setEncodedSize(encoded.length());
+            event.commit();
+        }
+
+        return encoded;
+    }
+
+    /**
+     * Compresses some content, emitting a DeflateEvent with the number of bytes the deflater read and wrote.
+     *
+     * @param deflater      the (freshly reset) Deflater used to compress the content
+     * @param deflation     performs the compression
+     * @return  the result of the compression
+     * @throws E    if the content can't be compressed
+     */
+    public static <T, E extends Exception> T deflate(Deflater deflater, Deflation<T,E> deflation) throws E {
+        DeflateEvent event = new DeflateEvent();
+        event.begin();
+        T result = deflation.deflate();
+        event.end();
+        if (event.shouldCommit()) {
+            event.setSize(deflater.getBytesRead());
+            event.setCompressedSize(deflater.getBytesWritten());
+            event.commit();
+        }
+
+        return result;
+    }
+
+    /**
+     * Parses the content of a file, emitting a ParseEvent.
+     *
+     * @param path      the path of the file being parsed
+     * @param size      the number of characters being parsed
+     * @param parser    performs the parsing
+     * @return  the result of the parsing
+     * @throws E    if the content can't be parsed
+     */
+    public static <T, E extends Exception> T parse(String path, long size, Operation<T,E> parser) throws E {
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        T result = parser.run();
+        event.end();
+        if (event.shouldCommit()) {
+            event.setPath(path);
+            event.setSize(size);
+            event.commit();
+        }
+
+        return result;
+    }
+
+    /**
+     * Resolves the links between the decisions in a directory, emitting a LinkResolutionEvent.
+     *
+     * @param path          the path of the directory
+     * @param decisions     the number of decisions
+     * @param resolver      resolves the links
+     * @throws E    if the links can't be resolved
+     */
+    public static <E extends Exception> void resolveLinks(String path, long decisions, Action<E> resolver) throws E {
+        LinkResolutionEvent event = new LinkResolutionEvent();
+        event.begin();
+        resolver.run();
+        event.end();
+        if (event.shouldCommit()) {
+            event.setPath(path);
+            event.setSize(decisions);
+            event.commit();
+        }
+    }
+
+    /**
+     * Lists a directory, emitting a DirectoryScanEvent with the number of entries that were found.
+     *
+     * @param path      the path of the directory
+     * @param scanner   lists the directory
+     * @return  the entries
+     * @throws E    if the directory can't be listed
+     */
+    public static <T, E extends Exception> List<T> scanDirectory(String path, Operation<List<T>,E> scanner) throws E {
+        DirectoryScanEvent event = new DirectoryScanEvent();
+        event.begin();
+        List<T> entries = scanner.run();
+        event.end();
+        if (event.shouldCommit()) {
+            event.setPath(path);
+            event.setSize(entries.size());
+            event.commit();
+        }
+
+        return entries;
+    }
+
+    @FunctionalInterface
+    public interface Operation<T, E extends Exception> {
+
+        T run() throws E;
+
+    }
+
+    @FunctionalInterface
+    public interface Action<E extends Exception> {
+
+        void run() throws E;
+
+    }
+
+    @FunctionalInterface
+    public interface Encoder<E extends Exception> {
+
+        String encode() throws E;
+
+    }
+
+    @FunctionalInterface
+    public interface Deflation<T, E extends Exception> {
+
+        T deflate() throws E;
+
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.structurizr.importer.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Emitted when the links between the decisions in a directory are resolved, and file references rewritten.
+ */
+@Name("com.structurizr.import.LinkResolution")
+@Label("Link Resolution")
+@Category({ "Structurizr", "Import" })
+@Description("Emitted when the links between the decisions in a directory are resolved, and file references rewritten.")
+@StackTrace(false)
+public final class LinkResolutionEvent extends Event {
+
+    @Label("Path")
+    private String path;
+
+    @Label("Decisions")
+    private long size;
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+}
\ No newline at end of file
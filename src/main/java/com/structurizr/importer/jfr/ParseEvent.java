@@ -0,0 +1,30 @@
+package com.structurizr.importer.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Emitted when the content of a file is parsed (e.g. the title, date and status of a decision).
+ */
+@Name("com.structurizr.import.Parse")
+@Label("Parse")
+@Category({ "Structurizr", "Import" })
+@Description("Emitted when the content of a file is parsed (e.g. the title, date and status of a decision).")
+@StackTrace(false)
+public final class ParseEvent extends Event {
+
+    @Label("Path")
+    private String path;
+
+    @Label("Size")
+    @DataAmount
+    private long size;
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.structurizr.importer;
+
+import com.structurizr.Workspace;
+import com.structurizr.importer.diagrams.mermaid.MermaidImporter;
+import com.structurizr.importer.documentation.AdrToolsDecisionImporter;
+import com.structurizr.importer.documentation.DefaultDocumentationImporter;
+import com.structurizr.importer.documentation.DefaultImageImporter;
+import com.structurizr.view.ImageView;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImportMetricsTests {
+
+    @Test
+    public void importDocumentation() throws Exception {
+        Workspace workspace = new Workspace("Name", "Description");
+        ImportMetrics metrics = new ImportMetrics();
+
+        DefaultDocumentationImporter importer = new DefaultDocumentationImporter();
+        importer.setImportListener(metrics);
+        importer.importDocumentation(workspace, new File("./src/test/docs/docs"));
+
+        long bytes = 0;
+        for (File file : new File("./src/test/docs/docs").listFiles()) {
+            if (file.isFile()) {
+                bytes += Files.size(file.toPath());
+            }
+        }
+
+        assertEquals(6, metrics.getImportedCount());
+        assertEquals(0, metrics.getFailedCount());
+        assertEquals(0, metrics.getInProgressCount());
+        assertEquals(bytes, metrics.getBytesRead());
+        assertTrue(metrics.getBytesProduced() > 0);
+        assertTrue(metrics.getDurationNanos() > 0);
+        assertEquals(0, metrics.getEncodeDurationNanos());
+    }
+
+    @Test
+    public void importDecisions() {
+        Workspace workspace = new Workspace("Name", "Description");
+        ImportMetrics metrics = new ImportMetrics();
+
+        AdrToolsDecisionImporter importer = new AdrToolsDecisionImporter();
+        importer.setImportListener(metrics);
+        importer.importDocumentation(workspace, new File("./src/test/adrs"));
+
+        assertEquals(workspace.getDocumentation().getDecisions().size(), metrics.getImportedCount());
+        assertTrue(metrics.getBytesRead() > 0);
+    }
+
+    @Test
+    public void importImages() {
+        Workspace workspace = new Workspace("Name", "Description");
+        List<ImportEvent> events = Collections.synchronizedList(new ArrayList<>());
+
+        DefaultImageImporter importer = new DefaultImageImporter();
+        importer.setImportListener(events::add);
+        importer.importDocumentation(workspace, new File("./src/test/docs/images/image.png"));
+
+        assertEquals(1, events.size());
+        ImportEvent event = events.get(0);
+        assertEquals("DefaultImageImporter", event.getImporter());
+        assertTrue(event.getPath().endsWith("image.png"));
+        assertTrue(event.isSuccessful());
+        assertEquals(new File("./src/test/docs/images/image.png").length(), event.getBytesRead());
+        assertEquals(workspace.getDocumentation().getImages().iterator().next().getContent().length(), event.getBytesProduced());
+        assertTrue(event.getEncodeDurationNanos() > 0);
+        assertTrue(event.getEncodeDurationNanos() <= event.getDurationNanos());
+    }
+
+    @Test
+    public void importDiagram() throws Exception {
+        Workspace workspace = new Workspace("Name", "Description");
+        workspace.getViews().getConfiguration().addProperty("mermaid.url", "https://mermaid.ink");
+        ImageView view = workspace.getViews().createImageView("key");
+        ImportMetrics metrics = new ImportMetrics();
+
+        MermaidImporter importer = new MermaidImporter();
+        importer.setImportListener(metrics);
+        importer.importDiagram(view, new File("./src/test/diagrams/mermaid/flowchart.mmd"));
+
+        assertEquals(1, metrics.getImportedCount());
+        assertEquals(new File("./src/test/diagrams/mermaid/flowchart.mmd").length(), metrics.getBytesRead());
+        assertEquals(view.getContent().length(), metrics.getBytesProduced());
+        assertTrue(metrics.getEncodeDurationNanos() > 0);
+    }
+
+    @Test
+    public void importDiagram_WhenTheDiagramCannotBeImported() {
+        Workspace workspace = new Workspace("Name", "Description");
+        ImageView view = workspace.getViews().createImageView("key");
+        List<ImportEvent> events = new ArrayList<>();
+
+        MermaidImporter importer = new MermaidImporter();
+        importer.setImportListener(events::add);
+        assertThrows(IllegalArgumentException.class, () -> importer.importDiagram(view, "graph TD"));
+
+        assertEquals(1, events.size());
+        assertEquals("key", events.get(0).getPath());
+        assertFalse(events.get(0).isSuccessful());
+        assertTrue(events.get(0).getException() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void reset() throws Exception {
+        ImportMetrics metrics = new ImportMetrics();
+        DefaultDocumentationImporter importer = new DefaultDocumentationImporter();
+        importer.setImportListener(metrics);
+        importer.importDocumentation(new Workspace("Name", "Description"), new File("./src/test/docs/docs"));
+
+        metrics.reset();
+        assertEquals(0, metrics.getImportedCount());
+        assertEquals(0, metrics.getBytesRead());
+        assertEquals(0, metrics.getDurationNanos());
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.structurizr.importer.diagrams;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeflaterPoolTests {
+
+    @Test
+    public void getInstance_ThrowsAnException_WhenAnInvalidCompressionLevelIsSpecified() {
+        try {
+            DeflaterPool.getInstance(10, false);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Expected a compression level between 0 and 9", e.getMessage());
+        }
+    }
+
+    @Test
+    public void getInstance_ReturnsTheSamePool_ForTheSameSettings() {
+        assertSame(DeflaterPool.getInstance(Deflater.BEST_SPEED, true), DeflaterPool.getInstance(Deflater.BEST_SPEED, true));
+        assertNotSame(DeflaterPool.getInstance(Deflater.BEST_SPEED, true), DeflaterPool.getInstance(Deflater.BEST_SPEED, false));
+    }
+
+    @Test
+    public void borrow_ReusesReleasedDeflaters() {
+        DeflaterPool pool = DeflaterPool.getInstance(Deflater.NO_COMPRESSION, false);
+        pool.clear();
+
+        Deflater deflater = pool.borrow();
+        deflater.setInput(new byte[] { 1, 2, 3 });
+        deflater.finish();
+        deflater.deflate(new byte[64]);
+        pool.release(deflater);
+        assertEquals(1, pool.size());
+
+        Deflater reused = pool.borrow();
+        assertSame(deflater, reused);
+        assertFalse(reused.finished());
+        assertEquals(0, pool.size());
+
+        pool.release(reused);
+        pool.clear();
+        assertEquals(0, pool.size());
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.structurizr.importer.diagrams;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DiagramRendererTests {
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/ok", exchange -> respond(exchange, 200, "diagram"));
+        server.createContext("/missing", exchange -> respond(exchange, 404, "not found"));
+        server.createContext("/flaky", exchange -> {
+            if (requests.get() == 0) {
+                respond(exchange, 503, "unavailable");
+            } else {
+                respond(exchange, 200, "diagram");
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private void respond(com.sun.net.httpserver.HttpExchange exchange, int statusCode, String body) throws IOException {
+        requests.incrementAndGet();
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    @Test
+    public void construction_ThrowsAnException_WhenTheMaximumNumberOfConcurrentRequestsIsLessThanOne() {
+        try {
+            new DiagramRenderer(0, Duration.ofSeconds(1), 0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("The maximum number of concurrent requests must be greater than zero.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void renderAsDataUri() throws Exception {
+        String dataUri = new DiagramRenderer().renderAsDataUri(url("/ok"), "image/png");
+
+        assertEquals("data:image/png;base64,ZGlhZ3JhbQ==", dataUri);
+    }
+
+    @Test
+    public void render_RetriesFailedRequests() throws Exception {
+        byte[] bytes = new DiagramRenderer(1, Duration.ofSeconds(5), 1).render(url("/flaky"));
+
+        assertEquals("diagram", new String(bytes, StandardCharsets.UTF_8));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void render_ThrowsAnException_WhenTheDiagramDoesNotExist() throws Exception {
+        try {
+            new DiagramRenderer(1, Duration.ofSeconds(5), 2).render(url("/missing"));
+            fail();
+        } catch (IOException e) {
+            assertEquals(url("/missing") + " returned HTTP 404", e.getMessage());
+            assertEquals(1, requests.get());
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.structurizr.importer.diagrams;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EncodedDiagramCacheTests {
+
+    @Test
+    public void construction_ThrowsAnException_WhenTheMaximumSizeIsLessThanOne() {
+        try {
+            new EncodedDiagramCache(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("The maximum size must be greater than zero.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void get_CountsHitsAndMisses() {
+        EncodedDiagramCache cache = new EncodedDiagramCache(10);
+
+        assertEquals("url1", cache.get(() -> "url1", "plantuml", "https://plantuml.com/plantuml", "png", "A -> B"));
+        assertEquals("url1", cache.get(() -> "url2", "plantuml", "https://plantuml.com/plantuml", "png", "A -> B"));
+        assertEquals("url3", cache.get(() -> "url3", "plantuml", "https://plantuml.com/plantuml", "svg", "A -> B"));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void get_EvictsTheLeastRecentlyUsedEntry_WhenTheCacheIsFull() {
+        EncodedDiagramCache cache = new EncodedDiagramCache(2);
+
+        cache.get(() -> "a", "a");
+        cache.get(() -> "b", "b");
+        cache.get(() -> "a", "a");
+        cache.get(() -> "c", "c");
+
+        assertEquals(2, cache.size());
+        assertEquals("a", cache.get(() -> "not cached", "a"));
+        assertEquals("not cached", cache.get(() -> "not cached", "b"));
+    }
+
+    @Test
+    public void save_PersistsTheCache() throws Exception {
+        File file = new File(Files.createTempDirectory("cache").toFile(), "diagrams.cache");
+
+        EncodedDiagramCache cache = new EncodedDiagramCache(10, file);
+        cache.get(() -> "https://kroki.io/graphviz/png/eNpLyUwvSizIUHBXqPZIzcnJ17ULzy_KSanlAgB1EAjQ", "kroki", "digraph G {Hello->World}");
+        cache.save();
+
+        EncodedDiagramCache loadedCache = new EncodedDiagramCache(10, file);
+        assertEquals(1, loadedCache.size());
+        assertEquals("https://kroki.io/graphviz/png/eNpLyUwvSizIUHBXqPZIzcnJ17ULzy_KSanlAgB1EAjQ", loadedCache.get(() -> "not cached", "kroki", "digraph G {Hello->World}"));
+        assertEquals(1, loadedCache.getHitCount());
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.structurizr.importer.diagrams;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RenderedDiagramCacheTests {
+
+    @Test
+    public void construction_ThrowsAnException_WhenTheMaximumSizeIsLessThanOne() throws Exception {
+        try {
+            new RenderedDiagramCache(Files.createTempDirectory("structurizr").toFile(), 0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("The maximum size must be greater than zero.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void get_RendersOnlyOnce_WhenTheDiagramIsCached() throws Exception {
+        File directory = Files.createTempDirectory("structurizr").toFile();
+        AtomicInteger renders = new AtomicInteger();
+        RenderedDiagramCache.DiagramFactory factory = () -> {
+            renders.incrementAndGet();
+            return new byte[] { 1, 2, 3 };
+        };
+
+        RenderedDiagramCache cache = new RenderedDiagramCache(directory, 1024);
+        assertArrayEquals(new byte[] { 1, 2, 3 }, cache.get(factory, "plantuml", "https://plantuml.com/plantuml", "png", "A -> B"));
+        assertArrayEquals(new byte[] { 1, 2, 3 }, cache.get(factory, "plantuml", "https://plantuml.com/plantuml", "png", "A -> B"));
+
+        assertEquals(1, renders.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(3, cache.getSizeInBytes());
+
+        // and the rendered diagram survives between instances
+        cache = new RenderedDiagramCache(directory, 1024);
+        cache.get(factory, "plantuml", "https://plantuml.com/plantuml", "png", "A -> B");
+        assertEquals(1, renders.get());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void get_EvictsTheLeastRecentlyUsedDiagrams_WhenTheCacheIsFull() throws Exception {
+        File directory = Files.createTempDirectory("structurizr").toFile();
+        RenderedDiagramCache cache = new RenderedDiagramCache(directory, 10);
+
+        cache.get(() -> new byte[4], "a");
+        cache.get(() -> new byte[4], "b");
+        new File(directory, EncodedDiagramCache.key("a")).setLastModified(System.currentTimeMillis() - 60000);
+        cache.get(() -> new byte[4], "c");
+
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(8, cache.getSizeInBytes());
+        assertFalse(new File(directory, EncodedDiagramCache.key("a")).exists());
+        assertTrue(new File(directory, EncodedDiagramCache.key("b")).exists());
+        assertTrue(new File(directory, EncodedDiagramCache.key("c")).exists());
+    }
+
+    @Test
+    public void clear() throws Exception {
+        RenderedDiagramCache cache = new RenderedDiagramCache(Files.createTempDirectory("structurizr").toFile(), 1024);
+        cache.get(() -> new byte[4], "a");
+
+        cache.clear();
+        assertEquals(0, cache.getSizeInBytes());
+    }
+
+}
\ No newline at end of file
@@ -2,7 +2,14 @@ package com.structurizr.importer.diagrams.kroki;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+import java.util.zip.Inflater;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class KrokiEncoderTests {
 
@@ -65,4 +72,32 @@ public class KrokiEncoderTests {
                 "}"));
     }
 
+    @Test
+    public void encode_WhenTheCompressedDiagramIsLargerThan2KB() throws Exception {
+        Random random = new Random(1);
+        StringBuilder buf = new StringBuilder("@startuml\n");
+        for (int i = 0; i < 5000; i++) {
+            buf.append("Component").append(random.nextInt(100000)).append(" -> Component").append(random.nextInt(100000)).append(" : ")
+                    .append("\u00e9v\u00e9nement ").append(random.nextInt()).append("\n");
+        }
+        buf.append("@enduml");
+        String diagram = buf.toString();
+
+        String encoded = new KrokiEncoder().encode(diagram);
+        byte[] compressed = Base64.getUrlDecoder().decode(encoded);
+        assertTrue(compressed.length > 2048);
+
+        Inflater inflater = new Inflater();
+        inflater.setInput(compressed);
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        while (!inflater.finished()) {
+            int length = inflater.inflate(buffer);
+            decoded.write(buffer, 0, length);
+        }
+        inflater.end();
+
+        assertEquals(diagram, decoded.toString(StandardCharsets.UTF_8));
+    }
+
 }
\ No newline at end of file
@@ -1,10 +1,15 @@
 package com.structurizr.importer.diagrams.kroki;
 
 import com.structurizr.Workspace;
+import com.structurizr.importer.diagrams.DiagramImportResult;
 import com.structurizr.view.ImageView;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -85,4 +90,41 @@ public class KrokiImporterTests {
         }
     }
 
+    @Test
+    public void importDiagrams() {
+        Workspace workspace = new Workspace("Name", "Description");
+        workspace.getViews().getConfiguration().addProperty("kroki.url", "https://kroki.io");
+        ImageView view1 = workspace.getViews().createImageView("key1");
+        ImageView view2 = workspace.getViews().createImageView("key2");
+        view2.addProperty("kroki.format", "jpg");
+
+        Map<ImageView, String> definitions = new LinkedHashMap<>();
+        definitions.put(view1, "digraph G {Hello->World}\n");
+        definitions.put(view2, "digraph G {Hello->World}\n");
+
+        List<DiagramImportResult> results = new KrokiImporter().importDiagrams("graphviz", definitions);
+        assertTrue(results.get(0).isSuccessful());
+        assertEquals("https://kroki.io/graphviz/png/eNpLyUwvSizIUHBXqPZIzcnJ17ULzy_KSanlAgB1EAjQ", view1.getContent());
+        assertFalse(results.get(1).isSuccessful());
+        assertEquals("Expected a format of png or svg", results.get(1).getException().getMessage());
+    }
+
+    @Test
+    public void importDiagram_FromAFile_WhenTheDefinitionImportIsOverridden() throws Exception {
+        Workspace workspace = new Workspace("Name", "Description");
+        workspace.getViews().getConfiguration().addProperty("kroki.url", "https://kroki.io");
+        ImageView view = workspace.getViews().createImageView("key");
+
+        List<String> formats = new ArrayList<>();
+        new KrokiImporter() {
+            @Override
+            public void importDiagram(ImageView view, String format, String content) throws Exception {
+                formats.add(format);
+                super.importDiagram(view, format, content);
+            }
+        }.importDiagram(view, "graphviz", new File("./src/test/diagrams/kroki/diagram.dot"));
+
+        assertEquals(List.of("graphviz"), formats);
+        assertEquals("https://kroki.io/graphviz/png/eNpLyUwvSizIUHBXqPZIzcnJ17ULzy_KSanlAgB1EAjQ", view.getContent());
+    }
 }
\ No newline at end of file
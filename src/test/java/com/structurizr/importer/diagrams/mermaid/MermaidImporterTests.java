@@ -5,6 +5,8 @@ import com.structurizr.view.ImageView;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -85,4 +87,21 @@ public class MermaidImporterTests {
         }
     }
 
+    @Test
+    public void importDiagram_FromAFile_WhenTheDefinitionImportIsOverridden() throws Exception {
+        Workspace workspace = new Workspace("Name", "Description");
+        workspace.getViews().getConfiguration().addProperty("mermaid.url", "https://mermaid.ink");
+        ImageView view = workspace.getViews().createImageView("key");
+
+        new MermaidImporter() {
+            @Override
+            public void importDiagram(ImageView view, String content) {
+                super.importDiagram(view, content.replace("Christmas", "Birthday"));
+            }
+        }.importDiagram(view, new File("./src/test/diagrams/mermaid/flowchart.mmd"));
+
+        ImageView expectedView = workspace.getViews().createImageView("expected");
+        new MermaidImporter().importDiagram(expectedView, new String(Files.readAllBytes(new File("./src/test/diagrams/mermaid/flowchart.mmd").toPath()), StandardCharsets.UTF_8).replace("Christmas", "Birthday"));
+        assertEquals(expectedView.getContent(), view.getContent());
+    }
 }
\ No newline at end of file
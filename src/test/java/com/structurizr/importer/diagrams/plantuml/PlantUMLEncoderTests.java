@@ -2,9 +2,13 @@ package com.structurizr.importer.diagrams.plantuml;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -17,4 +21,101 @@ public class PlantUMLEncoderTests {
         assertEquals("SoWkIImgAStDuIh9BCb9LGXEBInDpKjELKZ9J4mlIinLIAr8p2t8IULooazIqBLJSCp914fQAMIavkJaSpcavgK0zG80", new PlantUMLEncoder().encode(mermaid));
     }
 
+    @Test
+    public void encode_MatchesTheOriginalImplementation_ForRandomBytes() {
+        Random random = new Random(1);
+        PlantUMLEncoder encoder = new PlantUMLEncoder();
+
+        for (int i = 0; i < 1000; i++) {
+            byte[] bytes = new byte[random.nextInt(256)];
+            random.nextBytes(bytes);
+
+            assertEquals(OriginalPlantUMLEncoder.encode(bytes), encoder.encode(bytes, bytes.length));
+        }
+    }
+
+    @Test
+    public void encode_MatchesTheOriginalImplementation_ForRandomDiagrams() throws Exception {
+        Random random = new Random(2);
+        PlantUMLEncoder encoder = new PlantUMLEncoder();
+
+        for (int i = 0; i < 100; i++) {
+            StringBuilder buf = new StringBuilder("@startuml\n");
+            int lines = random.nextInt(2000);
+            for (int line = 0; line < lines; line++) {
+                buf.append("A").append(random.nextInt(100)).append(" -> B").append(random.nextInt(100)).append(" : caf\u00e9\n");
+            }
+            buf.append("@enduml");
+
+            assertEquals(OriginalPlantUMLEncoder.encode(buf.toString()), encoder.encode(buf.toString()));
+        }
+    }
+
+    /**
+     * The original (StringBuilder based) implementation, used to check that the output hasn't changed.
+     */
+    private static class OriginalPlantUMLEncoder {
+
+        static String encode(String plantUMLDefinition) throws Exception {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+
+            DeflaterOutputStream dos = new DeflaterOutputStream(baos, deflater, true);
+            dos.write(plantUMLDefinition.getBytes(StandardCharsets.UTF_8));
+            dos.finish();
+            deflater.end();
+
+            return encode(baos.toByteArray());
+        }
+
+        static String encode(byte[] bytes) {
+            StringBuilder buf = new StringBuilder();
+            for (int i = 0; i < bytes.length; i += 3) {
+                int b1 = (bytes[i]) & 0xFF;
+                int b2 = (i + 1 < bytes.length ? bytes[i + 1] : (byte)0) & 0xFF;
+                int b3 = (i + 2 < bytes.length ? bytes[i + 2] : (byte)0) & 0xFF;
+
+                append3bytes(buf, b1, b2, b3);
+            }
+
+            return buf.toString();
+        }
+
+        static char encode6bit(byte b) {
+            if (b < 10) {
+                return (char) ('0' + b);
+            }
+            b -= 10;
+            if (b < 26) {
+                return (char) ('A' + b);
+            }
+            b -= 26;
+            if (b < 26) {
+                return (char) ('a' + b);
+            }
+            b -= 26;
+            if (b == 0) {
+                return '-';
+            }
+            if (b == 1) {
+                return '_';
+            }
+
+            return '?';
+        }
+
+        static void append3bytes(StringBuilder buf, int b1, int b2, int b3) {
+            int c1 = b1 >> 2;
+            int c2 = (b1 & 0x3) << 4 | b2 >> 4;
+            int c3 = (b2 & 0xF) << 2 | b3 >> 6;
+            int c4 = b3 & 0x3F;
+
+            buf.append(encode6bit((byte)(c1 & 0x3F)));
+            buf.append(encode6bit((byte)(c2 & 0x3F)));
+            buf.append(encode6bit((byte)(c3 & 0x3F)));
+            buf.append(encode6bit((byte)(c4 & 0x3F)));
+        }
+
+    }
+
 }
\ No newline at end of file
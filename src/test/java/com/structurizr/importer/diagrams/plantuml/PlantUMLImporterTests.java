@@ -1,10 +1,22 @@
 package com.structurizr.importer.diagrams.plantuml;
 
 import com.structurizr.Workspace;
+import com.structurizr.importer.ImportEvent;
+import com.structurizr.importer.diagrams.DiagramImportResult;
+import com.structurizr.importer.diagrams.EncodedDiagramCache;
+import com.sun.net.httpserver.HttpServer;
 import com.structurizr.view.ImageView;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -92,4 +104,129 @@ public class PlantUMLImporterTests {
         }
     }
 
-}
+    @Test
+    public void importDiagram_WhenACompressionLevelIsSpecified() throws Exception {
+        Workspace workspace = new Workspace("Name", "Description");
+        workspace.getViews().getConfiguration().addProperty("plantuml.url", "https://plantuml.com/plantuml");
+        ImageView view = workspace.getViews().createImageView("key");
+
+        PlantUMLImporter importer = new PlantUMLImporter();
+        importer.setCompressionLevel(Deflater.NO_COMPRESSION);
+        importer.importDiagram(view, new File("./src/test/diagrams/plantuml/with-title.puml"));
+        assertTrue(view.getContent().startsWith("https://plantuml.com/plantuml/png/"));
+        assertNotEquals("https://plantuml.com/plantuml/png/SoWkIImgAStDuIh9BCb9LGXEBInDpKjELKZ9J4mlIinLIAr8p2t8IULooazIqBLJSCp914fQAMIavkJaSpcavgK0zG80", view.getContent());
+    }
+
+    @Test
+    public void setCompressionLevel_ThrowsAnException_WhenAnInvalidCompressionLevelIsSpecified() {
+        try {
+            new PlantUMLImporter().setCompressionLevel(10);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Expected a compression level between 0 and 9", e.getMessage());
+        }
+    }
+
+    @Test
+    public void importDiagram_WhenACacheIsSpecified() throws Exception {
+        Workspace workspace = new Workspace("Name", "Description");
+        workspace.getViews().getConfiguration().addProperty("plantuml.url", "https://plantuml.com/plantuml");
+        ImageView view1 = workspace.getViews().createImageView("key1");
+        ImageView view2 = workspace.getViews().createImageView("key2");
+
+        EncodedDiagramCache cache = new EncodedDiagramCache(10);
+        PlantUMLImporter importer = new PlantUMLImporter();
+        importer.setCache(cache);
+        importer.importDiagram(view1, new File("./src/test/diagrams/plantuml/with-title.puml"));
+        importer.importDiagram(view2, new File("./src/test/diagrams/plantuml/with-title.puml"));
+
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals("Sequence diagram example", view2.getTitle());
+        assertEquals("https://plantuml.com/plantuml/png/SoWkIImgAStDuIh9BCb9LGXEBInDpKjELKZ9J4mlIinLIAr8p2t8IULooazIqBLJSCp914fQAMIavkJaSpcavgK0zG80", view2.getContent());
+    }
+
+    @Test
+    public void importDiagram_WhenInliningIsEnabled() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/plantuml/png/", exchange -> {
+            byte[] bytes = { 1, 2, 3 };
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+
+        try {
+            Workspace workspace = new Workspace("Name", "Description");
+            workspace.getViews().getConfiguration().addProperty("plantuml.url", "http://localhost:" + server.getAddress().getPort() + "/plantuml");
+            workspace.getViews().getConfiguration().addProperty("plantuml.inline", "true");
+            ImageView view = workspace.getViews().createImageView("key");
+
+            new PlantUMLImporter().importDiagram(view, new File("./src/test/diagrams/plantuml/with-title.puml"));
+            assertEquals("data:image/png;base64,AQID", view.getContent());
+            assertEquals("image/png", view.getContentType());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void importDiagramFiles() {
+        Workspace workspace = new Workspace("Name", "Description");
+        workspace.getViews().getConfiguration().addProperty("plantuml.url", "https://plantuml.com/plantuml");
+        ImageView view1 = workspace.getViews().createImageView("key1");
+        ImageView view2 = workspace.getViews().createImageView("key2");
+        ImageView view3 = workspace.getViews().createImageView("key3");
+
+        Map<ImageView, File> files = new LinkedHashMap<>();
+        files.put(view1, new File("./src/test/diagrams/plantuml/with-title.puml"));
+        files.put(view2, new File("./src/test/diagrams/plantuml/does-not-exist.puml"));
+        files.put(view3, new File("./src/test/diagrams/plantuml/without-title.puml"));
+
+        List<DiagramImportResult> results = new PlantUMLImporter().importDiagramFiles(files);
+        assertEquals(3, results.size());
+
+        assertSame(view1, results.get(0).getView());
+        assertTrue(results.get(0).isSuccessful());
+        assertEquals("https://plantuml.com/plantuml/png/SoWkIImgAStDuIh9BCb9LGXEBInDpKjELKZ9J4mlIinLIAr8p2t8IULooazIqBLJSCp914fQAMIavkJaSpcavgK0zG80", view1.getContent());
+
+        assertSame(view2, results.get(1).getView());
+        assertFalse(results.get(1).isSuccessful());
+        assertTrue(results.get(1).getException() instanceof NoSuchFileException);
+        assertNull(view2.getContent());
+
+        assertSame(view3, results.get(2).getView());
+        assertTrue(results.get(2).isSuccessful());
+        assertEquals("https://plantuml.com/plantuml/png/SoWkIImgAStDuNBAJrBGjLDmpCbCJbMmKiX8pSd9vt98pKi1IW80", view3.getContent());
+    }
+
+    @Test
+    public void importDiagram_FromAFile_WhenTheDefinitionImportIsOverridden() throws Exception {
+        Workspace workspace = new Workspace("Name", "Description");
+        workspace.getViews().getConfiguration().addProperty("plantuml.url", "https://plantuml.com/plantuml");
+        ImageView view = workspace.getViews().createImageView("key");
+
+        List<String> definitions = new ArrayList<>();
+        PlantUMLImporter importer = new PlantUMLImporter() {
+            @Override
+            public void importDiagram(ImageView view, String content) throws Exception {
+                definitions.add(content);
+                super.importDiagram(view, content);
+            }
+        };
+        List<ImportEvent> events = new ArrayList<>();
+        importer.setImportListener(events::add);
+        importer.importDiagram(view, new File("./src/test/diagrams/plantuml/with-title.puml"));
+
+        assertEquals(1, definitions.size());
+        assertEquals("Sequence diagram example", view.getTitle());
+
+        // the file and its definition are recorded as a single import
+        assertEquals(1, events.size());
+        assertTrue(events.get(0).getPath().endsWith("with-title.puml"));
+        assertEquals(new File("./src/test/diagrams/plantuml/with-title.puml").length(), events.get(0).getBytesRead());
+        assertEquals(view.getContent().length(), events.get(0).getBytesProduced());
+    }
+}
\ No newline at end of file
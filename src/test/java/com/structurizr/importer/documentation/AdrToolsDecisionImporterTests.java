@@ -9,8 +9,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.SimpleTimeZone;
 import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -125,4 +133,251 @@ public class AdrToolsDecisionImporterTests {
         assertTrue(decision5.getContent().contains("Amended by [9. Help scripts](#9)"));
     }
 
+    @Test
+    public void test_importDocumentation_WhenAnExecutorIsSpecified() {
+        decisionImporter.importDocumentation(workspace, new File("./src/test/adrs"));
+
+        Workspace parallelWorkspace = new Workspace("Name", "Description");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            AdrToolsDecisionImporter parallelDecisionImporter = new AdrToolsDecisionImporter();
+            parallelDecisionImporter.setExecutor(executor);
+            parallelDecisionImporter.importDocumentation(parallelWorkspace, new File("./src/test/adrs"));
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(9, parallelWorkspace.getDocumentation().getDecisions().size());
+        for (Decision decision : documentation.getDecisions()) {
+            Decision parallelDecision = parallelWorkspace.getDocumentation().getDecisions().stream().filter(d -> d.getId().equals(decision.getId())).findFirst().get();
+            assertEquals(decision.getTitle(), parallelDecision.getTitle());
+            assertEquals(decision.getDate(), parallelDecision.getDate());
+            assertEquals(decision.getStatus(), parallelDecision.getStatus());
+            assertEquals(decision.getContent(), parallelDecision.getContent());
+            assertEquals(
+                    decision.getLinks().stream().map(l -> l.getId() + " " + l.getDescription()).collect(Collectors.toSet()),
+                    parallelDecision.getLinks().stream().map(l -> l.getId() + " " + l.getDescription()).collect(Collectors.toSet()));
+        }
+    }
+
+    @Test
+    public void test_importDocumentation_OnlyReadsMetadataFromBeforeTheContextHeading() throws Exception {
+        File directory = Files.createTempDirectory("adrs").toFile();
+        Files.writeString(new File(directory, "0001-header-only.md").toPath(),
+                "# 1. Header only\n" +
+                "\n" +
+                "## Status\n" +
+                "\n" +
+                "## Context\n" +
+                "\n" +
+                "Date: 2000-01-01\n" +
+                "\n" +
+                "Superseded by [2. Other](0002-other.md)\n");
+
+        decisionImporter.importDocumentation(workspace, directory);
+
+        Decision decision = documentation.getDecisions().iterator().next();
+        assertEquals("Header only", decision.getTitle());
+        assertEquals("Proposed", decision.getStatus());
+        assertTrue(decision.getLinks().isEmpty());
+    }
+
+    @Test
+    public void test_importDocumentation_WhenADateFormatAndTimeZoneAreSpecified() throws Exception {
+        File directory = Files.createTempDirectory("adrs").toFile();
+        Files.writeString(new File(directory, "0001-custom-date-format.md").toPath(),
+                "# 1. Custom date format\n" +
+                "\n" +
+                "Date: 12/02/2016\n" +
+                "\n" +
+                "## Status\n" +
+                "\n" +
+                "Accepted\n");
+
+        decisionImporter.setDateFormat("dd/MM/yyyy");
+        decisionImporter.setTimeZone("America/New_York");
+        decisionImporter.importDocumentation(workspace, directory);
+
+        Decision decision = documentation.getDecisions().iterator().next();
+        SimpleDateFormat sdf = new SimpleDateFormat("dd-MMM-yyyy HH:mm:ss ZZZ");
+        sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
+        assertEquals("12-Feb-2016 05:00:00 +0000", sdf.format(decision.getDate()));
+    }
+
+    @Test
+    public void test_importDocumentation_WhenADateFormatWithoutAYearIsSpecified() throws Exception {
+        File directory = Files.createTempDirectory("adrs").toFile();
+        Files.writeString(new File(directory, "0001-custom-date-format.md").toPath(),
+                "# 1. Custom date format\n" +
+                "\n" +
+                "Date: 12/02\n" +
+                "\n" +
+                "## Status\n" +
+                "\n" +
+                "Accepted\n");
+
+        // custom formats keep their SimpleDateFormat semantics, so a missing year defaults to 1970
+        decisionImporter.setDateFormat("dd/MM");
+        decisionImporter.setTimeZone("UTC");
+        decisionImporter.importDocumentation(workspace, directory);
+
+        Decision decision = documentation.getDecisions().iterator().next();
+        SimpleDateFormat sdf = new SimpleDateFormat("dd-MMM-yyyy HH:mm:ss ZZZ", Locale.ENGLISH);
+        sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
+        assertEquals("12-Feb-1970 00:00:00 +0000", sdf.format(decision.getDate()));
+    }
+
+    @Test
+    public void test_importDocumentation_WhenATimeZoneIsSpecified() {
+        decisionImporter.setTimeZone(TimeZone.getTimeZone("Asia/Tokyo"));
+        decisionImporter.importDocumentation(workspace, new File("./src/test/adrs"));
+
+        Decision decision1 = documentation.getDecisions().stream().filter(d -> d.getId().equals("1")).findFirst().get();
+        SimpleDateFormat sdf = new SimpleDateFormat("dd-MMM-yyyy HH:mm:ss ZZZ");
+        sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
+        assertEquals("11-Feb-2016 15:00:00 +0000", sdf.format(decision1.getDate()));
+    }
+
+    @Test
+    public void test_importDocumentation_WhenACustomTimeZoneIsSpecified() {
+        // a custom ID has no java.time equivalent
+        decisionImporter.setTimeZone(new SimpleTimeZone(2 * 60 * 60 * 1000, "Custom/PlusTwo"));
+        decisionImporter.importDocumentation(workspace, new File("./src/test/adrs"));
+
+        Decision decision1 = documentation.getDecisions().stream().filter(d -> d.getId().equals("1")).findFirst().get();
+        SimpleDateFormat sdf = new SimpleDateFormat("dd-MMM-yyyy HH:mm:ss ZZZ");
+        sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
+        assertEquals("11-Feb-2016 22:00:00 +0000", sdf.format(decision1.getDate()));
+    }
+
+    @Test
+    public void test_importDocumentation_OnlyParsesAddedOrChangedFiles_WhenAManifestIsSpecified() throws Exception {
+        File directory = Files.createTempDirectory("adrs").toFile();
+        for (File file : new File("./src/test/adrs").listFiles()) {
+            Files.copy(file.toPath(), new File(directory, file.getName()).toPath());
+        }
+        File manifest = new File(Files.createTempDirectory("manifest").toFile(), "adrs.manifest");
+
+        // decision files recreated from the manifest aren't reported to the listener
+        List<String> importedFiles = new ArrayList<>();
+        AdrToolsDecisionImporter incrementalDecisionImporter = new AdrToolsDecisionImporter();
+        incrementalDecisionImporter.setImportListener(event -> importedFiles.add(event.getPath()));
+        incrementalDecisionImporter.setManifest(manifest);
+
+        incrementalDecisionImporter.importDocumentation(new Workspace("Name", "Description"), directory);
+        assertEquals(9, importedFiles.size());
+        assertTrue(manifest.exists());
+
+        // nothing has changed
+        importedFiles.clear();
+        incrementalDecisionImporter.importDocumentation(workspace, directory);
+        assertEquals(0, importedFiles.size());
+        assertEquals(9, documentation.getDecisions().size());
+        Decision decision5 = documentation.getDecisions().stream().filter(d -> d.getId().equals("5")).findFirst().get();
+        assertEquals("Help comments", decision5.getTitle());
+        assertEquals("Accepted", decision5.getStatus());
+        assertEquals("9", decision5.getLinks().iterator().next().getId());
+        assertTrue(decision5.getContent().contains("Amended by [9. Help scripts](#9)"));
+
+        // the last modified time has changed, but the content hasn't
+        importedFiles.clear();
+        File decisionFile = new File(directory, "0001-record-architecture-decisions.md");
+        decisionFile.setLastModified(decisionFile.lastModified() - 60000);
+        incrementalDecisionImporter.importDocumentation(new Workspace("Name", "Description"), directory);
+        assertEquals(0, importedFiles.size());
+
+        // a decision has been changed, and another added
+        importedFiles.clear();
+        Files.writeString(decisionFile.toPath(), Files.readString(decisionFile.toPath()).replace("Record architecture decisions", "Record all architecture decisions"));
+        Files.writeString(new File(directory, "0010-new-decision.md").toPath(), "# 10. New decision\n\nDate: 2023-01-01\n\n## Status\n\nAccepted\n");
+        Workspace updatedWorkspace = new Workspace("Name", "Description");
+        incrementalDecisionImporter.importDocumentation(updatedWorkspace, directory);
+        assertEquals(2, importedFiles.size());
+        assertEquals(10, updatedWorkspace.getDocumentation().getDecisions().size());
+        Decision decision1 = updatedWorkspace.getDocumentation().getDecisions().stream().filter(d -> d.getId().equals("1")).findFirst().get();
+        assertEquals("Record all architecture decisions", decision1.getTitle());
+    }
+
+    @Test
+    public void test_importDocumentation_KeepsTheEntriesForEachDirectory_WhenAManifestIsShared() throws Exception {
+        File directory1 = Files.createTempDirectory("adrs").toFile();
+        File directory2 = Files.createTempDirectory("adrs").toFile();
+        File file1 = new File(directory1, "0001-record-architecture-decisions.md");
+        File file2 = new File(directory2, "0001-record-architecture-decisions.md");
+        Files.writeString(file1.toPath(), "# 1. Decision one\n\nDate: 2023-01-01\n\n## Status\n\nAccepted\n");
+        Files.writeString(file2.toPath(), "# 1. Decision two\n\nDate: 2023-01-01\n\n## Status\n\nAccepted\n");
+
+        // same name, size and last modified time
+        file2.setLastModified(file1.lastModified());
+        File manifest = new File(Files.createTempDirectory("manifest").toFile(), "adrs.manifest");
+
+        // decision files recreated from the manifest aren't reported to the listener
+        List<String> importedFiles = new ArrayList<>();
+        AdrToolsDecisionImporter incrementalDecisionImporter = new AdrToolsDecisionImporter();
+        incrementalDecisionImporter.setImportListener(event -> importedFiles.add(event.getPath()));
+        incrementalDecisionImporter.setManifest(manifest);
+
+        incrementalDecisionImporter.importDocumentation(new Workspace("Name", "Description"), directory1);
+        Workspace workspace2 = new Workspace("Name", "Description");
+        incrementalDecisionImporter.importDocumentation(workspace2, directory2);
+        assertEquals(2, importedFiles.size());
+        assertEquals("Decision two", workspace2.getDocumentation().getDecisions().iterator().next().getTitle());
+
+        // neither directory has changed, so nothing is parsed again
+        importedFiles.clear();
+        Workspace workspace1 = new Workspace("Name", "Description");
+        incrementalDecisionImporter.importDocumentation(workspace1, directory1);
+        incrementalDecisionImporter.importDocumentation(new Workspace("Name", "Description"), directory2);
+        assertEquals(0, importedFiles.size());
+        assertEquals("Decision one", workspace1.getDocumentation().getDecisions().iterator().next().getTitle());
+    }
+
+    @Test
+    public void test_importDocumentation_ProducesTheSameDecisions_WhenAManifestIsSpecified() throws Exception {
+        File manifest = new File(Files.createTempDirectory("manifest").toFile(), "adrs.manifest");
+        decisionImporter.importDocumentation(workspace, new File("./src/test/adrs"));
+
+        AdrToolsDecisionImporter incrementalDecisionImporter = new AdrToolsDecisionImporter();
+        incrementalDecisionImporter.setManifest(manifest);
+        Workspace fullImport = new Workspace("Name", "Description");
+        incrementalDecisionImporter.importDocumentation(fullImport, new File("./src/test/adrs"));
+        Workspace incrementalImport = new Workspace("Name", "Description");
+        incrementalDecisionImporter.importDocumentation(incrementalImport, new File("./src/test/adrs"));
+
+        assertEquals(describe(documentation), describe(fullImport.getDocumentation()));
+        assertEquals(describe(documentation), describe(incrementalImport.getDocumentation()));
+    }
+
+    @Test
+    public void test_importDocumentation_IgnoresTheManifest_WhenImportDecisionIsOverridden() throws Exception {
+        File manifest = new File(Files.createTempDirectory("manifest").toFile(), "adrs.manifest");
+
+        List<File> importedFiles = new ArrayList<>();
+        AdrToolsDecisionImporter customDecisionImporter = new AdrToolsDecisionImporter() {
+            @Override
+            protected Decision importDecision(File file) throws Exception {
+                importedFiles.add(file);
+                Decision decision = super.importDecision(file);
+                decision.setStatus(decision.getStatus().toUpperCase());
+
+                return decision;
+            }
+        };
+        customDecisionImporter.setManifest(manifest);
+
+        customDecisionImporter.importDocumentation(new Workspace("Name", "Description"), new File("./src/test/adrs"));
+        customDecisionImporter.importDocumentation(workspace, new File("./src/test/adrs"));
+        assertEquals(18, importedFiles.size());
+        assertFalse(manifest.exists());
+        assertTrue(documentation.getDecisions().stream().allMatch(d -> d.getStatus().equals(d.getStatus().toUpperCase())));
+    }
+
+    private static List<String> describe(Documentation documentation) {
+        return documentation.getDecisions().stream()
+                .sorted((d1, d2) -> d1.getId().compareTo(d2.getId()))
+                .map(d -> d.getId() + "|" + d.getTitle() + "|" + d.getDate() + "|" + d.getStatus() + "|" + d.getFormat() + "|" + d.getContent() + "|" +
+                        d.getLinks().stream().map(l -> l.getId() + ":" + l.getDescription()).sorted().collect(Collectors.joining(",")))
+                .collect(Collectors.toList());
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.structurizr.importer.documentation;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class Base64FileEncoderTests {
+
+    @Test
+    public void test_encode_WhenTheFileIsEmpty() throws Exception {
+        Path file = Files.createTempFile("structurizr", ".bin");
+
+        assertEquals("", Base64FileEncoder.encode(file));
+    }
+
+    @Test
+    public void test_encode_WhenTheFileIsRead() throws Exception {
+        for (int size : new int[] { 1, 2, 3, 100, 65536, 200001 }) {
+            byte[] bytes = randomBytes(size);
+            Path file = Files.createTempFile("structurizr", ".bin");
+            Files.write(file, bytes);
+
+            assertEquals(Base64.getEncoder().encodeToString(bytes), Base64FileEncoder.encode(file));
+        }
+    }
+
+    private byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+
+        return bytes;
+    }
+
+}
\ No newline at end of file
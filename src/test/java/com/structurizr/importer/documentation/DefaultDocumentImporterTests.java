@@ -7,6 +7,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.Set;
 
@@ -70,6 +72,49 @@ public class DefaultDocumentImporterTests {
         assertSection(Format.AsciiDoc, "== Section 6", 6, "06-section-6.asc", sections.stream().filter(s -> s.getOrder() == 6).findFirst().get());
     }
 
+    @Test
+    public void test_importDocumentationFrom_WhenAPathIsSpecified() {
+        documentationImporter.importDocumentationFrom(workspace, Paths.get("./src/test/docs/docs"));
+        Collection<Section> sections = workspace.getDocumentation().getSections();
+        assertEquals(6, sections.size());
+
+        assertSection(Format.Markdown, "## Section 1", 1, "01-section-1.md", sections.stream().filter(s -> s.getOrder() == 1).findFirst().get());
+        assertSection(Format.AsciiDoc, "== Section 6", 6, "06-section-6.asc", sections.stream().filter(s -> s.getOrder() == 6).findFirst().get());
+    }
+
+    @Test
+    public void test_importDocumentation_WhenMultipleDirectoriesAreImported() {
+        documentationImporter.importDocumentation(workspace, new File("./src/test/docs/docs"));
+        documentationImporter.importDocumentation(workspace, new File("./src/test/docs/docs/07-subdirectory"));
+        Collection<Section> sections = workspace.getDocumentation().getSections();
+        assertEquals(7, sections.size());
+
+        // filenames are relative to the directory each section was imported from
+        assertSection(Format.Markdown, "## Section 1", 1, "01-section-1.md", sections.stream().filter(s -> s.getOrder() == 1).findFirst().get());
+        assertSection(Format.Markdown, "## Section 7", 7, "01-section-1.md", sections.stream().filter(s -> s.getOrder() == 7).findFirst().get());
+    }
+
+    @Test
+    public void test_importDocumentation_IgnoresFilesWithoutAnExtension() throws Exception {
+        File directory = Files.createTempDirectory("structurizr").toFile();
+        Files.writeString(new File(directory, "01-section.MD").toPath(), "## Section 1");
+        Files.writeString(new File(directory, "Makefile").toPath(), "all:");
+
+        documentationImporter.importDocumentation(workspace, directory);
+        Collection<Section> sections = workspace.getDocumentation().getSections();
+        assertEquals(1, sections.size());
+        assertSection(Format.Markdown, "## Section 1", 1, "01-section.MD", sections.iterator().next());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void test_importFile_WhenOnlyAFileIsSpecified() throws Exception {
+        documentationImporter.importFile(workspace, new File("./src/test/docs/docs/07-subdirectory/01-section-1.md"));
+        Collection<Section> sections = workspace.getDocumentation().getSections();
+        assertEquals(1, sections.size());
+        assertSection(Format.Markdown, "## Section 7", 1, "01-section-1.md", sections.iterator().next());
+    }
+
     private void assertSection(Format format, String content, int order, String filename, Section section) {
         assertTrue(workspace.getDocumentation().getSections().contains(section));
         assertEquals(format, section.getFormat());
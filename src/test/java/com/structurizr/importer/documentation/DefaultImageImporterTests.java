@@ -6,9 +6,27 @@ import com.structurizr.documentation.Image;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -178,4 +196,252 @@ public class DefaultImageImporterTests {
         assertEquals(0, documentation.getImages().size());
     }
 
+    @Test
+    public void test_importDocumentation_ImportsTheOriginalBytes_WhenPassthroughIsEnabled() throws IOException {
+        Documentation documentation = workspace.getDocumentation();
+        imageImporter.setPassthrough(true);
+        imageImporter.importDocumentation(workspace, new File("./src/test/docs/images/images"));
+        assertEquals(4, documentation.getImages().size());
+
+        for (String name : new String[] { "image.png", "image.jpg", "image.jpeg", "image.gif" }) {
+            Image image = documentation.getImages().stream().filter(i -> i.getName().equals(name)).findFirst().get();
+            byte[] bytes = Files.readAllBytes(new File("./src/test/docs/images/images", name).toPath());
+            assertEquals(Base64.getEncoder().encodeToString(bytes), image.getContent());
+        }
+
+        assertEquals("image/png", documentation.getImages().stream().filter(i -> i.getName().equals("image.png")).findFirst().get().getType());
+        assertEquals("image/jpeg", documentation.getImages().stream().filter(i -> i.getName().equals("image.jpg")).findFirst().get().getType());
+        assertEquals("image/gif", documentation.getImages().stream().filter(i -> i.getName().equals("image.gif")).findFirst().get().getType());
+    }
+
+    @Test
+    public void test_importDocumentation_DetectsTheContentType_WhenPassthroughIsEnabled() throws IOException {
+        File tempDirectory = Files.createTempDirectory("structurizr").toFile();
+        Files.copy(new File("./src/test/docs/images/images/image.png").toPath(), new File(tempDirectory, "image.jpg").toPath());
+
+        imageImporter.setPassthrough(true);
+        imageImporter.importDocumentation(workspace, tempDirectory);
+        assertEquals("image/png", workspace.getDocumentation().getImages().iterator().next().getType());
+    }
+
+    @Test
+    public void test_importDocumentation_DetectsSvgImagesWithALongPreamble_WhenPassthroughIsEnabled() throws IOException {
+        File tempDirectory = Files.createTempDirectory("structurizr").toFile();
+        Files.writeString(new File(tempDirectory, "image.svg").toPath(), "<?xml version=\"1.0\"?>\n<!-- " + "x".repeat(2048) + " -->\n<svg xmlns=\"http://www.w3.org/2000/svg\"/>");
+
+        imageImporter.setPassthrough(true);
+        imageImporter.importDocumentation(workspace, tempDirectory);
+        assertEquals("image/svg+xml", workspace.getDocumentation().getImages().iterator().next().getType());
+    }
+
+    @Test
+    public void test_importDocumentation_ThrowsAnException_WhenPassthroughIsEnabledAndTheFileIsNotAnImage() {
+        try {
+            imageImporter.setPassthrough(true);
+            imageImporter.importDocumentation(workspace, new File("README.md"));
+            fail();
+        } catch (Exception e) {
+            assertTrue(e.getMessage().endsWith("README.md is not a supported image file."));
+        }
+    }
+
+    @Test
+    public void test_setParallelism_ThrowsAnException_WhenTheParallelismIsLessThanOne() {
+        try {
+            imageImporter.setParallelism(0);
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("The parallelism must be greater than zero.", iae.getMessage());
+        }
+    }
+
+    @Test
+    public void test_setMaxBytesInFlight_ThrowsAnException_WhenTheNumberOfBytesIsLessThanOne() {
+        try {
+            imageImporter.setMaxBytesInFlight(0);
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("The maximum number of bytes in flight must be greater than zero.", iae.getMessage());
+        }
+    }
+
+    @Test
+    public void test_importDocumentation_AddsTheSameImages_WhenImportingInParallel() {
+        imageImporter.importDocumentation(workspace, new File("./src/test/docs/images"));
+
+        for (long maxBytesInFlight : new long[] { 1, 1024, Long.MAX_VALUE }) {
+            Workspace parallelWorkspace = new Workspace("Name", "Description");
+            DefaultImageImporter parallelImageImporter = new DefaultImageImporter();
+            parallelImageImporter.setParallelism(4);
+            parallelImageImporter.setMaxBytesInFlight(maxBytesInFlight);
+            parallelImageImporter.importDocumentation(parallelWorkspace, new File("./src/test/docs/images"));
+
+            assertEquals(9, parallelWorkspace.getDocumentation().getImages().size());
+            for (Image image : workspace.getDocumentation().getImages()) {
+                Image parallelImage = parallelWorkspace.getDocumentation().getImages().stream().filter(i -> i.getName().equals(image.getName())).findFirst().get();
+                assertEquals(image.getType(), parallelImage.getType());
+                assertEquals(image.getContent(), parallelImage.getContent());
+            }
+        }
+    }
+
+    @Test
+    public void test_importDocumentation_SharesTheContentOfIdenticalImages_WhenDeduplicationIsEnabled() throws IOException {
+        File tempDirectory = Files.createTempDirectory("structurizr").toFile();
+        new File(tempDirectory, "a").mkdir();
+        new File(tempDirectory, "b").mkdir();
+        Files.copy(new File("./src/test/docs/images/image.png").toPath(), new File(tempDirectory, "a/logo.png").toPath());
+        Files.copy(new File("./src/test/docs/images/image.png").toPath(), new File(tempDirectory, "b/logo.png").toPath());
+        Files.copy(new File("./src/test/docs/images/image.gif").toPath(), new File(tempDirectory, "legend.gif").toPath());
+
+        imageImporter.setDeduplicate(true);
+        imageImporter.importDocumentation(workspace, tempDirectory);
+
+        Documentation documentation = workspace.getDocumentation();
+        assertEquals(3, documentation.getImages().size());
+        Image a = documentation.getImages().stream().filter(i -> i.getName().equals("a/logo.png")).findFirst().get();
+        Image b = documentation.getImages().stream().filter(i -> i.getName().equals("b/logo.png")).findFirst().get();
+        assertSame(a.getContent(), b.getContent());
+
+        assertEquals(Collections.singletonList(Arrays.asList("a/logo.png", "b/logo.png")), imageImporter.getDuplicateImageGroups());
+    }
+
+    @Test
+    public void test_importDocumentation_EncodesImagesTheSameWay_WhenDeduplicationIsEnabled() {
+        imageImporter.importDocumentation(workspace, new File("./src/test/docs/images"));
+        Set<Image> images = workspace.getDocumentation().getImages();
+
+        Workspace deduplicatedWorkspace = new Workspace("Name", "Description");
+        imageImporter.setDeduplicate(true);
+        imageImporter.importDocumentation(deduplicatedWorkspace, new File("./src/test/docs/images"));
+
+        for (Image image : deduplicatedWorkspace.getDocumentation().getImages()) {
+            Image expected = images.stream().filter(i -> i.getName().equals(image.getName())).findFirst().get();
+            assertEquals(expected.getType(), image.getType());
+            assertEquals(expected.getContent(), image.getContent());
+        }
+        assertEquals(images.size(), deduplicatedWorkspace.getDocumentation().getImages().size());
+    }
+
+    @Test
+    public void test_getDuplicateImageGroups_IsEmpty_WhenDeduplicationIsNotEnabled() {
+        imageImporter.importDocumentation(workspace, new File("./src/test/docs/images"));
+
+        assertTrue(imageImporter.getDuplicateImageGroups().isEmpty());
+    }
+
+    @Test
+    public void test_setMaximumDimensions_ThrowsAnException_WhenANegativeDimensionIsSpecified() {
+        try {
+            imageImporter.setMaximumDimensions(-1, 100);
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("The maximum width and height must be zero (no limit) or greater.", iae.getMessage());
+        }
+    }
+
+    @Test
+    public void test_importDocumentation_DownsamplesLargeImages_WhenOptimizationIsEnabled() throws IOException {
+        File tempDirectory = Files.createTempDirectory("structurizr").toFile();
+        BufferedImage image = new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        for (int x = 0; x < image.getWidth(); x += 10) {
+            graphics.setColor(new Color(x % 256, (x * 7) % 256, (x * 13) % 256));
+            graphics.fillRect(x, 0, 10, image.getHeight());
+        }
+        graphics.dispose();
+        ImageIO.write(image, "png", new File(tempDirectory, "screenshot.png"));
+        long originalSize = new File(tempDirectory, "screenshot.png").length();
+
+        imageImporter.setOptimize(true);
+        imageImporter.setMaximumDimensions(500, 500);
+        imageImporter.importDocumentation(workspace, tempDirectory);
+
+        Image optimizedImage = workspace.getDocumentation().getImages().iterator().next();
+        assertEquals("image/png", optimizedImage.getType());
+
+        byte[] bytes = Base64.getDecoder().decode(optimizedImage.getContent());
+        BufferedImage downsampledImage = ImageIO.read(new ByteArrayInputStream(bytes));
+        assertEquals(500, downsampledImage.getWidth());
+        assertEquals(250, downsampledImage.getHeight());
+        assertEquals(originalSize - bytes.length, imageImporter.getBytesSavedByImage().get("screenshot.png").longValue());
+    }
+
+    @Test
+    public void test_importDocumentation_KeepsTheColourManagementAndPhysicalDimensions_WhenOptimizationIsEnabled() throws IOException {
+        File tempDirectory = Files.createTempDirectory("structurizr").toFile();
+        BufferedImage image = new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        for (int x = 0; x < image.getWidth(); x += 10) {
+            graphics.setColor(new Color(x % 256, (x * 7) % 256, (x * 13) % 256));
+            graphics.fillRect(x, 0, 10, image.getHeight());
+        }
+        graphics.dispose();
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), null);
+        IIOMetadataNode root = new IIOMetadataNode("javax_imageio_png_1.0");
+        IIOMetadataNode gamma = new IIOMetadataNode("gAMA");
+        gamma.setAttribute("value", "45455");
+        root.appendChild(gamma);
+        IIOMetadataNode physicalDimensions = new IIOMetadataNode("pHYs");
+        physicalDimensions.setAttribute("pixelsPerUnitXAxis", "5670");
+        physicalDimensions.setAttribute("pixelsPerUnitYAxis", "5670");
+        physicalDimensions.setAttribute("unitSpecifier", "meter");
+        root.appendChild(physicalDimensions);
+        metadata.mergeTree("javax_imageio_png_1.0", root);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(new File(tempDirectory, "screenshot.png"))) {
+            writer.setOutput(out);
+            writer.write(new IIOImage(image, null, metadata));
+        } finally {
+            writer.dispose();
+        }
+
+        imageImporter.setOptimize(true);
+        imageImporter.setMaximumDimensions(500, 500);
+        imageImporter.importDocumentation(workspace, tempDirectory);
+
+        Image optimizedImage = workspace.getDocumentation().getImages().iterator().next();
+        byte[] bytes = Base64.getDecoder().decode(optimizedImage.getContent());
+        ImageReader reader = ImageIO.getImageReadersByFormatName("png").next();
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            reader.setInput(in);
+            assertEquals(500, reader.getWidth(0));
+
+            Node tree = reader.getImageMetadata(0).getAsTree("javax_imageio_png_1.0");
+            Element gammaChunk = findChild(tree, "gAMA");
+            assertEquals("45455", gammaChunk.getAttribute("value"));
+
+            // the physical dimensions of the downsampled image are the same
+            Element physicalDimensionsChunk = findChild(tree, "pHYs");
+            assertEquals("1418", physicalDimensionsChunk.getAttribute("pixelsPerUnitXAxis"));
+            assertEquals("1418", physicalDimensionsChunk.getAttribute("pixelsPerUnitYAxis"));
+            assertEquals("meter", physicalDimensionsChunk.getAttribute("unitSpecifier"));
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    private static Element findChild(Node node, String name) {
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeName().equals(name)) {
+                return (Element)child;
+            }
+        }
+
+        fail(name + " was not found");
+        return null;
+    }
+
+    @Test
+    public void test_importDocumentation_KeepsTheOriginalImage_WhenOptimizationDoesNotMakeItSmaller() throws IOException {
+        imageImporter.setOptimize(true);
+        imageImporter.importDocumentation(workspace, new File("./src/test/docs/images/images"));
+
+        Image jpg = workspace.getDocumentation().getImages().stream().filter(i -> i.getName().equals("image.jpg")).findFirst().get();
+        byte[] bytes = Files.readAllBytes(new File("./src/test/docs/images/images/image.jpg").toPath());
+        assertEquals(Base64.getEncoder().encodeToString(bytes), jpg.getContent());
+        assertFalse(imageImporter.getBytesSavedByImage().containsKey("image.jpg"));
+    }
+
 }
\ No newline at end of file
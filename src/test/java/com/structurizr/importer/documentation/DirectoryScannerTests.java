@@ -0,0 +1,41 @@
+package com.structurizr.importer.documentation;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.DosFileAttributes;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DirectoryScannerTests {
+
+    @Test
+    public void test_list_ReportsHiddenFilesInTheSameWayAsFile() throws Exception {
+        Path directory = Files.createTempDirectory("scanner");
+        Files.writeString(directory.resolve(".hidden.md"), "## Hidden");
+        Files.writeString(directory.resolve("visible.md"), "## Visible");
+
+        List<DirectoryScanner.Entry> entries = DirectoryScanner.list(directory);
+        assertEquals(2, entries.size());
+        for (DirectoryScanner.Entry entry : entries) {
+            File file = entry.toFile();
+            assertEquals(file.isHidden(), entry.isHidden(), file.getName());
+        }
+    }
+
+    @Test
+    public void test_isHidden_UsesTheDosHiddenAttribute_WhenDosAttributesWereRead() {
+        assertTrue(new DirectoryScanner.Entry(Path.of("visible.md"), dosAttributes(true)).isHidden());
+        assertFalse(new DirectoryScanner.Entry(Path.of(".visible.md"), dosAttributes(false)).isHidden());
+    }
+
+    private static DosFileAttributes dosAttributes(boolean hidden) {
+        return (DosFileAttributes)Proxy.newProxyInstance(DosFileAttributes.class.getClassLoader(), new Class<?>[] { DosFileAttributes.class },
+                (proxy, method, args) -> method.getName().equals("isHidden") ? hidden : null);
+    }
+
+}
\ No newline at end of file
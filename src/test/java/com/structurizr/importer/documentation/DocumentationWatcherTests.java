@@ -0,0 +1,267 @@
+package com.structurizr.importer.documentation;
+
+import com.structurizr.Workspace;
+import com.structurizr.documentation.Decision;
+import com.structurizr.documentation.Documentable;
+import com.structurizr.documentation.Documentation;
+import com.structurizr.documentation.Image;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DocumentationWatcherTests {
+
+    @Test
+    public void test_watchSections_ThrowsAnException_WhenThePathIsNotADirectory() {
+        try {
+            new DocumentationWatcher().watchSections(new File("README.md"));
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertTrue(iae.getMessage().endsWith("README.md is not a directory."));
+        }
+    }
+
+    @Test
+    public void test_start_ImportsAndThenAppliesChanges() throws Exception {
+        Path directory = Files.createTempDirectory("structurizr");
+        write(directory.resolve("01-section-1.md"), "## Section 1");
+        write(directory.resolve("02-section-2.md"), "## Section 2");
+        Files.createDirectories(directory.resolve("03-subdirectory"));
+        write(directory.resolve("03-subdirectory/01-section-3.md"), "## Section 3");
+
+        LinkedBlockingQueue<Documentation> changes = new LinkedBlockingQueue<>();
+
+        try (DocumentationWatcher watcher = new DocumentationWatcher()) {
+            watcher.watchSections(directory.toFile());
+            watcher.setDebounceDelay(100);
+            watcher.setListener((documentation, paths) -> changes.add(documentation));
+            watcher.start();
+
+            Documentation documentation = watcher.getDocumentation();
+            assertEquals("01-section-1.md=## Section 1, 02-section-2.md=## Section 2, 03-subdirectory/01-section-3.md=## Section 3", describe(documentation));
+
+            // a changed file replaces its section, in a new Documentation instance
+            write(directory.resolve("02-section-2.md"), "## Section 2 (changed)");
+            waitFor(changes, () -> describe(watcher.getDocumentation()).equals("01-section-1.md=## Section 1, 02-section-2.md=## Section 2 (changed), 03-subdirectory/01-section-3.md=## Section 3"));
+            assertEquals("01-section-1.md=## Section 1, 02-section-2.md=## Section 2, 03-subdirectory/01-section-3.md=## Section 3", describe(documentation));
+
+            // a new file is added, and a deleted file removed
+            write(directory.resolve("03-subdirectory/02-section-4.md"), "## Section 4");
+            Files.delete(directory.resolve("01-section-1.md"));
+            waitFor(changes, () -> describe(watcher.getDocumentation()).equals("02-section-2.md=## Section 2 (changed), 03-subdirectory/01-section-3.md=## Section 3, 03-subdirectory/02-section-4.md=## Section 4"));
+        }
+    }
+
+    @Test
+    public void test_start_OnlyWatchesSubdirectories_WhenTheImporterIsRecursive() throws Exception {
+        Path directory = Files.createTempDirectory("structurizr");
+        write(directory.resolve("01-section-1.md"), "## Section 1");
+        Files.createDirectories(directory.resolve("02-subdirectory"));
+
+        LinkedBlockingQueue<Documentation> changes = new LinkedBlockingQueue<>();
+
+        try (DocumentationWatcher watcher = new DocumentationWatcher()) {
+            watcher.watchSections(directory.toFile(), new DefaultDocumentationImporter());
+            watcher.setDebounceDelay(100);
+            watcher.setListener((documentation, paths) -> changes.add(documentation));
+            watcher.start();
+
+            write(directory.resolve("02-subdirectory/01-section-2.md"), "## Section 2");
+            write(directory.resolve("03-section-3.md"), "## Section 3");
+            waitFor(changes, () -> describe(watcher.getDocumentation()).equals("01-section-1.md=## Section 1, 03-section-3.md=## Section 3"));
+        }
+    }
+
+    @Test
+    public void test_start_UsesTheManifestOfTheImporter_WhenDecisionsAreWatched() throws Exception {
+        Path directory = Files.createTempDirectory("structurizr");
+        Files.copy(Path.of("./src/test/adrs/0001-record-architecture-decisions.md"), directory.resolve("0001-record-architecture-decisions.md"));
+        File manifest = new File(Files.createTempDirectory("structurizr").toFile(), "manifest.bin");
+
+        AdrToolsDecisionImporter importer = new AdrToolsDecisionImporter();
+        importer.setManifest(manifest);
+
+        try (DocumentationWatcher watcher = new DocumentationWatcher()) {
+            watcher.watchDecisions(directory.toFile(), importer);
+            watcher.start();
+
+            assertEquals(1, watcher.getDocumentation().getDecisions().size());
+            assertTrue(manifest.exists());
+        }
+    }
+
+    @Test
+    public void test_start_ImportsIntoTheDocumentable_AndAddsNewFiles() throws Exception {
+        Path directory = Files.createTempDirectory("structurizr");
+        write(directory.resolve("01-section-1.md"), "## Section 1");
+        Workspace workspace = new Workspace("Name", "Description");
+
+        LinkedBlockingQueue<Documentation> changes = new LinkedBlockingQueue<>();
+
+        try (DocumentationWatcher watcher = new DocumentationWatcher(workspace)) {
+            watcher.watchSections(directory.toFile());
+            watcher.setDebounceDelay(100);
+            watcher.setListener((documentation, paths) -> changes.add(documentation));
+            watcher.start();
+            assertEquals("01-section-1.md=## Section 1", describe(workspace.getDocumentation()));
+
+            write(directory.resolve("02-section-2.md"), "## Section 2");
+            waitFor(changes, () -> describe(workspace.getDocumentation()).equals("01-section-1.md=## Section 1, 02-section-2.md=## Section 2"));
+        }
+    }
+
+    @Test
+    public void test_setListener_CanSwapInTheNewDocumentation() throws Exception {
+        Path directory = Files.createTempDirectory("structurizr");
+        write(directory.resolve("01-section-1.md"), "## Section 1");
+        write(directory.resolve("02-section-2.md"), "## Section 2");
+
+        // a Documentable whose documentation can be replaced
+        SwappableDocumentable documentable = new SwappableDocumentable();
+        LinkedBlockingQueue<Documentation> changes = new LinkedBlockingQueue<>();
+
+        try (DocumentationWatcher watcher = new DocumentationWatcher()) {
+            watcher.watchSections(directory.toFile());
+            watcher.setDebounceDelay(100);
+            watcher.setListener((documentation, paths) -> {
+                documentable.documentation = documentation;
+                changes.add(documentation);
+            });
+            watcher.start();
+            documentable.documentation = watcher.getDocumentation();
+
+            write(directory.resolve("01-section-1.md"), "## Section 1 (changed)");
+            Files.delete(directory.resolve("02-section-2.md"));
+            waitFor(changes, () -> describe(documentable.getDocumentation()).equals("01-section-1.md=## Section 1 (changed)"));
+        }
+    }
+
+    @Test
+    public void test_start_OnlyParsesTheChangedDecisions_WhenDecisionsAreWatched() throws Exception {
+        Path directory = Files.createTempDirectory("structurizr");
+        for (File file : new File("./src/test/adrs").listFiles()) {
+            Files.copy(file.toPath(), directory.resolve(file.getName()));
+        }
+
+        List<String> parsedFiles = new CopyOnWriteArrayList<>();
+        AdrToolsDecisionImporter importer = new AdrToolsDecisionImporter();
+        importer.setImportListener(event -> parsedFiles.add(Path.of(event.getPath()).getFileName().toString()));
+        LinkedBlockingQueue<Documentation> changes = new LinkedBlockingQueue<>();
+
+        try (DocumentationWatcher watcher = new DocumentationWatcher()) {
+            watcher.watchDecisions(directory.toFile(), importer);
+            watcher.setDebounceDelay(100);
+            watcher.setListener((documentation, paths) -> changes.add(documentation));
+            watcher.start();
+            assertEquals(9, parsedFiles.size());
+
+            parsedFiles.clear();
+            Path decisionFile = directory.resolve("0001-record-architecture-decisions.md");
+            write(decisionFile, Files.readString(decisionFile).replace("# 1. Record architecture decisions", "# 1. Record all architecture decisions"));
+            waitFor(changes, () -> getDecision(watcher.getDocumentation(), "1").getTitle().equals("Record all architecture decisions"));
+
+            assertEquals(List.of("0001-record-architecture-decisions.md"), List.copyOf(new LinkedHashSet<>(parsedFiles)));
+            assertEquals(9, watcher.getDocumentation().getDecisions().size());
+
+            // links from the decisions that weren't parsed again are still resolved
+            Decision decision5 = getDecision(watcher.getDocumentation(), "5");
+            assertEquals("9", decision5.getLinks().iterator().next().getId());
+            assertTrue(decision5.getContent().contains("Amended by [9. Help scripts](#9)"));
+        }
+    }
+
+    @Test
+    public void test_start_DeduplicatesChangedImages_WhenTheImporterDeduplicates() throws Exception {
+        Path directory = Files.createTempDirectory("structurizr");
+        writeImage(directory.resolve("a.png"), Color.RED);
+        writeImage(directory.resolve("b.png"), Color.BLUE);
+
+        DefaultImageImporter importer = new DefaultImageImporter();
+        importer.setDeduplicate(true);
+        LinkedBlockingQueue<Documentation> changes = new LinkedBlockingQueue<>();
+
+        try (DocumentationWatcher watcher = new DocumentationWatcher()) {
+            watcher.watchImages(directory.toFile(), importer);
+            watcher.setDebounceDelay(100);
+            watcher.setListener((documentation, paths) -> changes.add(documentation));
+            watcher.start();
+            assertNotEquals(getImage(watcher.getDocumentation(), "a.png").getContent(), getImage(watcher.getDocumentation(), "b.png").getContent());
+
+            // b.png now has the same content as a.png, so they share the encoded content
+            writeImage(directory.resolve("b.png"), Color.RED);
+            waitFor(changes, () -> getImage(watcher.getDocumentation(), "a.png").getContent().equals(getImage(watcher.getDocumentation(), "b.png").getContent()));
+            assertSame(getImage(watcher.getDocumentation(), "a.png").getContent(), getImage(watcher.getDocumentation(), "b.png").getContent());
+
+            Files.delete(directory.resolve("a.png"));
+            waitFor(changes, () -> watcher.getDocumentation().getImages().size() == 1);
+            assertEquals("b.png", watcher.getDocumentation().getImages().iterator().next().getName());
+        }
+    }
+
+    private void writeImage(Path path, Color color) throws Exception {
+        BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(color);
+        graphics.fillRect(0, 0, 10, 10);
+        graphics.dispose();
+
+        // written elsewhere and then moved, so that the watcher never sees a partially written image
+        Path temporaryFile = Files.createTempFile("structurizr", ".png");
+        ImageIO.write(image, "png", temporaryFile.toFile());
+        Files.move(temporaryFile, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Decision getDecision(Documentation documentation, String id) {
+        return documentation.getDecisions().stream().filter(d -> d.getId().equals(id)).findFirst().get();
+    }
+
+    private Image getImage(Documentation documentation, String name) {
+        return documentation.getImages().stream().filter(i -> i.getName().equals(name)).findFirst().get();
+    }
+
+    private void write(Path path, String content) throws Exception {
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void waitFor(LinkedBlockingQueue<Documentation> changes, java.util.function.BooleanSupplier condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            changes.poll(100, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private String describe(Documentation documentation) {
+        return documentation.getSections().stream()
+                .sorted((a, b) -> Integer.compare(a.getOrder(), b.getOrder()))
+                .map(section -> section.getFilename() + "=" + section.getContent())
+                .collect(Collectors.joining(", "));
+    }
+
+    private static final class SwappableDocumentable implements Documentable {
+
+        private volatile Documentation documentation;
+
+        @Override
+        public Documentation getDocumentation() {
+            return documentation;
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -35,4 +36,85 @@ public class FormatFinderTests {
         assertEquals(Format.AsciiDoc, FormatFinder.findFormat(new File("foo.asc")));
     }
 
-}
+    @Test
+    public void test_findFormat_ReturnsMarkdown_WhenAFileWithoutAnExtensionIsSpecified() {
+        assertEquals(Format.Markdown, FormatFinder.findFormat(new File("Makefile")));
+    }
+
+    @Test
+    public void test_classify_ReturnsTheFormat_WhenAMarkdownOrAsciiDocFileIsSpecified() {
+        assertEquals(Optional.of(Format.Markdown), FormatFinder.classify(new File("docs/foo.md")));
+        assertEquals(Optional.of(Format.Markdown), FormatFinder.classify("foo.markdown"));
+        assertEquals(Optional.of(Format.AsciiDoc), FormatFinder.classify("foo.adoc"));
+        assertEquals(Optional.of(Format.AsciiDoc), FormatFinder.classify("foo.asc"));
+    }
+
+    @Test
+    public void test_classify_IgnoresCase() {
+        assertEquals(Optional.of(Format.Markdown), FormatFinder.classify("README.MD"));
+        assertEquals(Optional.of(Format.AsciiDoc), FormatFinder.classify("foo.AsciiDoc"));
+    }
+
+    @Test
+    public void test_classify_ReturnsEmpty_WhenTheFileIsNotMarkdownOrAsciiDoc() {
+        assertEquals(Optional.empty(), FormatFinder.classify(new File("Makefile")));
+        assertEquals(Optional.empty(), FormatFinder.classify(new File("docs.md/Makefile")));
+        assertEquals(Optional.empty(), FormatFinder.classify("foo."));
+        assertEquals(Optional.empty(), FormatFinder.classify("foo.png"));
+        assertEquals(Optional.empty(), FormatFinder.classify("foo.md.bak"));
+        assertEquals(Optional.empty(), FormatFinder.classify("foomd"));
+        assertEquals(Optional.empty(), FormatFinder.classify(""));
+    }
+
+    @Test
+    public void test_classify_ThrowsAnException_WhenAFileIsNotSpecified() {
+        try {
+            FormatFinder.classify((File)null);
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("A file must be specified.", iae.getMessage());
+        }
+    }
+
+    @Test
+    public void test_registerExtension() {
+        assertEquals(Optional.empty(), FormatFinder.classify("foo.mdown"));
+
+        try {
+            FormatFinder.registerExtension(".mdown", Format.Markdown);
+            assertEquals(Optional.of(Format.Markdown), FormatFinder.classify("foo.mdown"));
+            assertEquals(Optional.of(Format.Markdown), FormatFinder.classify("foo.MDOWN"));
+
+            FormatFinder.registerExtension("mdown", Format.AsciiDoc);
+            assertEquals(Optional.of(Format.AsciiDoc), FormatFinder.classify("foo.mdown"));
+        } finally {
+            FormatFinder.unregisterExtension("mdown");
+        }
+
+        assertEquals(Optional.empty(), FormatFinder.classify("foo.mdown"));
+    }
+
+    @Test
+    public void test_unregisterExtension() {
+        try {
+            FormatFinder.unregisterExtension(".asc");
+            assertEquals(Optional.empty(), FormatFinder.classify("foo.asc"));
+            assertEquals(Optional.of(Format.AsciiDoc), FormatFinder.classify("foo.adoc"));
+        } finally {
+            FormatFinder.registerExtension("asc", Format.AsciiDoc);
+        }
+
+        assertEquals(Optional.of(Format.AsciiDoc), FormatFinder.classify("foo.asc"));
+    }
+
+    @Test
+    public void test_registerExtension_ThrowsAnException_WhenAnExtensionIsNotSpecified() {
+        try {
+            FormatFinder.registerExtension("", Format.Markdown);
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("An extension must be specified.", iae.getMessage());
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.structurizr.importer.documentation;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MultiStringReplacerTests {
+
+    @Test
+    public void test_replace_ReturnsTheContent_WhenThereAreNoMatches() {
+        String content = "No references here.";
+        MultiStringReplacer replacer = new MultiStringReplacer(Map.of("0001-record-architecture-decisions.md", "#1"));
+
+        assertSame(content, replacer.replace(content));
+    }
+
+    @Test
+    public void test_replace_ReplacesAllOccurrencesOfAllTargets() {
+        Map<String,String> replacements = new HashMap<>();
+        replacements.put("0001-a.md", "#1");
+        replacements.put("0002-b.md", "#2");
+        MultiStringReplacer replacer = new MultiStringReplacer(replacements);
+
+        assertEquals("See [1](#1), [2](#2) and [1 again](#1).", replacer.replace("See [1](0001-a.md), [2](0002-b.md) and [1 again](0001-a.md)."));
+    }
+
+    @Test
+    public void test_replace_PrefersTheLeftmostLongestMatch() {
+        Map<String,String> replacements = new HashMap<>();
+        replacements.put("abc", "1");
+        replacements.put("abcd", "2");
+        replacements.put("cde", "3");
+        MultiStringReplacer replacer = new MultiStringReplacer(replacements);
+
+        assertEquals("2e 3 1", replacer.replace("abcde cde abc"));
+    }
+
+    @Test
+    public void test_replace_MatchesStringReplace_ForTheAdrToolsDecisionLog() throws Exception {
+        File[] files = new File("./src/test/adrs").listFiles((dir, name) -> name.endsWith(".md"));
+        Map<String,String> replacements = new HashMap<>();
+        for (File file : files) {
+            replacements.put(file.getName(), "#" + Integer.parseInt(file.getName().substring(0, 4)));
+        }
+        MultiStringReplacer replacer = new MultiStringReplacer(replacements);
+
+        for (File file : files) {
+            String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            assertEquals(replaceSequentially(content, replacements), replacer.replace(content));
+        }
+    }
+
+    @Test
+    public void test_replace_MatchesStringReplace_ForRandomContent() {
+        Random random = new Random(42);
+        Map<String,String> replacements = new HashMap<>();
+        for (int i = 1; i <= 200; i++) {
+            replacements.put(String.format("%04d-decision-%d.md", i, i), "#" + i);
+        }
+        List<String> filenames = new ArrayList<>(replacements.keySet());
+        MultiStringReplacer replacer = new MultiStringReplacer(replacements);
+
+        for (int i = 0; i < 100; i++) {
+            StringBuilder buf = new StringBuilder();
+            for (int j = 0; j < 50; j++) {
+                if (random.nextInt(4) == 0) {
+                    buf.append(filenames.get(random.nextInt(filenames.size())));
+                } else {
+                    buf.append((char)(' ' + random.nextInt(95)));
+                }
+            }
+
+            String content = buf.toString();
+            assertEquals(replaceSequentially(content, replacements), replacer.replace(content));
+        }
+    }
+
+    private String replaceSequentially(String content, Map<String,String> replacements) {
+        for (String target : replacements.keySet()) {
+            content = content.replace(target, replacements.get(target));
+        }
+
+        return content;
+    }
+
+}
\ No newline at end of file
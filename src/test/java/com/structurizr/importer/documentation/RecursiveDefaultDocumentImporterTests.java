@@ -1,26 +1,41 @@
 package com.structurizr.importer.documentation;
 
 import com.structurizr.Workspace;
+import com.structurizr.documentation.Documentable;
 import com.structurizr.documentation.Format;
 import com.structurizr.documentation.Section;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class RecursiveDefaultDocumentImporterTests {
 
     private Workspace workspace;
     private RecursiveDefaultDocumentationImporter documentationImporter;
+    private ForkJoinPool forkJoinPool;
 
     @BeforeEach
     public void setUp() {
         documentationImporter = new RecursiveDefaultDocumentationImporter();
         workspace = new Workspace("Name", "Description");
+        forkJoinPool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        forkJoinPool.shutdown();
     }
 
     @Test
@@ -40,6 +55,60 @@ public class RecursiveDefaultDocumentImporterTests {
         assertSection(Format.Markdown, "## Section 7", 7, "07-subdirectory/01-section-1.md", sections.stream().filter(s -> s.getOrder() == 7).findFirst().get());
     }
 
+    @Test
+    public void test_importDocumentation_WhenAForkJoinPoolIsSpecified() {
+        File directory = new File("./src/test/docs/docs");
+
+        documentationImporter.setForkJoinPool(forkJoinPool);
+        documentationImporter.importDocumentation(workspace, directory);
+        Collection<Section> sections = workspace.getDocumentation().getSections();
+        assertEquals(7, sections.size());
+
+        assertSection(Format.Markdown, "## Section 1", 1, "01-section-1.md", sections.stream().filter(s -> s.getOrder() == 1).findFirst().get());
+        assertSection(Format.Markdown, "## Section 2", 2, "02-section-2.markdown", sections.stream().filter(s -> s.getOrder() == 2).findFirst().get());
+        assertSection(Format.Markdown, "## Section 3", 3, "03-section-3.text", sections.stream().filter(s -> s.getOrder() == 3).findFirst().get());
+        assertSection(Format.AsciiDoc, "== Section 4", 4, "04-section-4.adoc", sections.stream().filter(s -> s.getOrder() == 4).findFirst().get());
+        assertSection(Format.AsciiDoc, "== Section 5", 5, "05-section-5.asciidoc", sections.stream().filter(s -> s.getOrder() == 5).findFirst().get());
+        assertSection(Format.AsciiDoc, "== Section 6", 6, "06-section-6.asc", sections.stream().filter(s -> s.getOrder() == 6).findFirst().get());
+        assertSection(Format.Markdown, "## Section 7", 7, "07-subdirectory/01-section-1.md", sections.stream().filter(s -> s.getOrder() == 7).findFirst().get());
+    }
+
+    @Test
+    public void test_importDocumentation_CallsImportFile_WhenAForkJoinPoolIsSpecified() {
+        File directory = new File("./src/test/docs/docs");
+        AtomicInteger files = new AtomicInteger();
+
+        documentationImporter = new RecursiveDefaultDocumentationImporter() {
+            @Override
+            protected void importFile(Documentable documentable, Path root, File file) throws Exception {
+                files.incrementAndGet();
+                super.importFile(documentable, root, file);
+            }
+        };
+        documentationImporter.setForkJoinPool(forkJoinPool);
+        documentationImporter.importDocumentation(workspace, directory);
+
+        assertEquals(7, workspace.getDocumentation().getSections().size());
+        assertEquals(11, files.get()); // including the images
+    }
+
+    @Test
+    public void test_importDocumentation_DoesNotWrapExceptionsTwice_WhenAForkJoinPoolIsSpecified() {
+        File directory = new File("./src/test/docs/docs");
+        IOException exception = new IOException("Cannot read file");
+
+        documentationImporter = new RecursiveDefaultDocumentationImporter() {
+            @Override
+            protected void importFile(Documentable documentable, Path root, File file) throws Exception {
+                throw exception;
+            }
+        };
+        documentationImporter.setForkJoinPool(forkJoinPool);
+
+        DocumentationImportException e = assertThrows(DocumentationImportException.class, () -> documentationImporter.importDocumentation(workspace, directory));
+        assertSame(exception, e.getCause());
+    }
+
     private void assertSection(Format format, String content, int order, String filename, Section section) {
         assertTrue(workspace.getDocumentation().getSections().contains(section));
         assertEquals(format, section.getFormat());
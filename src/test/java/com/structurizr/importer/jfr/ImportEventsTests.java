@@ -0,0 +1,91 @@
+package com.structurizr.importer.jfr;
+
+import com.structurizr.Workspace;
+import com.structurizr.importer.diagrams.kroki.KrokiImporter;
+import com.structurizr.importer.diagrams.mermaid.MermaidImporter;
+import com.structurizr.importer.diagrams.plantuml.PlantUMLImporter;
+import com.structurizr.importer.documentation.AdrToolsDecisionImporter;
+import com.structurizr.importer.documentation.DefaultDocumentationImporter;
+import com.structurizr.importer.documentation.DefaultImageImporter;
+import com.structurizr.view.ImageView;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImportEventsTests {
+
+    private static final String[] EVENT_NAMES = {
+            "com.structurizr.import.DirectoryScan",
+            "com.structurizr.import.FileRead",
+            "com.structurizr.import.Parse",
+            "com.structurizr.import.LinkResolution",
+            "com.structurizr.import.Deflate",
+            "com.structurizr.import.Base64Encode"
+    };
+
+    @Test
+    public void test_importers_EmitEvents_WhenRecording() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            for (String name : EVENT_NAMES) {
+                recording.enable(name).withoutThreshold();
+            }
+            recording.start();
+
+            Workspace workspace = new Workspace("Name", "Description");
+            new AdrToolsDecisionImporter().importDocumentation(workspace, new File("./src/test/adrs"));
+            new DefaultDocumentationImporter().importDocumentation(workspace, new File("./src/test/docs/docs"));
+            new DefaultImageImporter().importDocumentation(workspace, new File("./src/test/docs/images/image.svg"));
+
+            workspace.getViews().getConfiguration().addProperty("plantuml.url", "https://plantuml.com/plantuml");
+            workspace.getViews().getConfiguration().addProperty("kroki.url", "https://kroki.io");
+            workspace.getViews().getConfiguration().addProperty("mermaid.url", "https://mermaid.ink");
+            new PlantUMLImporter().importDiagram(workspace.getViews().createImageView("plantuml"), "@startuml\nA -> B\n@enduml");
+            new KrokiImporter().importDiagram(workspace.getViews().createImageView("kroki"), "graphviz", "digraph G { A -> B }");
+            new MermaidImporter().importDiagram(workspace.getViews().createImageView("mermaid"), "graph TD\n  A --> B");
+
+            recording.stop();
+            Path file = Files.createTempFile("structurizr", ".jfr");
+            try {
+                recording.dump(file);
+                events = RecordingFile.readAllEvents(file);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        Set<String> names = events.stream().map(event -> event.getEventType().getName()).collect(Collectors.toSet());
+        for (String name : EVENT_NAMES) {
+            assertTrue(names.contains(name), name);
+        }
+
+        RecordedEvent read = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.structurizr.import.FileRead"))
+                .filter(event -> event.getString("path").endsWith("0001-record-architecture-decisions.md"))
+                .findFirst().orElseThrow();
+        assertEquals(new File("./src/test/adrs/0001-record-architecture-decisions.md").length(), read.getLong("size"));
+        assertFalse(read.getDuration().isNegative());
+
+        RecordedEvent linkResolution = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.structurizr.import.LinkResolution"))
+                .findFirst().orElseThrow();
+        assertEquals(9, linkResolution.getLong("size"));
+
+        RecordedEvent deflate = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.structurizr.import.Deflate"))
+                .findFirst().orElseThrow();
+        assertTrue(deflate.getLong("size") > 0);
+        assertTrue(deflate.getLong("compressedSize") > 0);
+    }
+
+}
\ No newline at end of file